@@ -9,4 +9,14 @@ module othello {
     opens othello.gui to javafx.fxml;
     exports othello.gamelogic;
     opens othello.gamelogic to javafx.fxml;
+    exports othello.gamelogic.strategy;
+    exports othello.gamelogic.book;
+    exports othello.tournament;
+
+    uses othello.gamelogic.strategy.StrategyProvider;
+    provides othello.gamelogic.strategy.StrategyProvider with
+            othello.gamelogic.strategy.MinimaxStrategy.Provider,
+            othello.gamelogic.strategy.ExpectimaxStrategy.Provider,
+            othello.gamelogic.strategy.MCTSStrategy.Provider,
+            othello.gamelogic.strategy.CustomStrategy.Provider;
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import javafx.stage.Stage;
 import java.io.IOException;
 import java.util.List;
 
+import othello.gamelogic.strategy.StrategyFactory;
 import othello.gui.GameController;
 
 
@@ -16,10 +17,6 @@ import othello.gui.GameController;
  */
 public class App extends javafx.application.Application {
 
-    // The program arguments MUST match one of these items!
-    // Edit this list to add more items!
-    private final List<String> acceptedArgs = List.of("human", "minimax", "expectimax", "mcts", "custom");
-
     @Override
     public void start(Stage stage) throws IOException {
         Parameters params = getParameters();
@@ -32,9 +29,17 @@ public class App extends javafx.application.Application {
             System.err.println("Error: Did not provide 2 program arguments");
             System.exit(1);
         }
-        if (!acceptedArgs.contains(argList.get(0)) || !acceptedArgs.contains(argList.get(1))) {
-            System.err.println("Error: Arguments don't match either 'human' or a computer strategy.");
-            System.exit(1);
+        // Each argument is "human" or a strategy spec, e.g. "minimax" or "mcts:threads=8,timeMs=500"
+        for (String arg : argList) {
+            if (!arg.equalsIgnoreCase("human")) {
+                try {
+                    StrategyFactory.create(arg);
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Error: '" + arg + "' is neither 'human' nor a strategy spec: "
+                            + e.getMessage() + " (strategies: " + StrategyFactory.names() + ")");
+                    System.exit(1);
+                }
+            }
         }
         controller.initGame(argList.get(0), argList.get(1));
         Scene scene = new Scene(root, 960, 600);
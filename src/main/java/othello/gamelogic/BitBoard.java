@@ -0,0 +1,155 @@
+package othello.gamelogic;
+
+/**
+ * Primitive Othello board helpers over 64-bit masks.
+ * Square (x, y) of the BoardSpace grid is bit x * 8 + y, so one long holds
+ * every disc of one colour. All methods are static and allocation-free,
+ * which makes them suitable for search inner loops.
+ */
+public final class BitBoard {
+    public static final int SQUARES = 64;
+
+    /** Pseudo-square used by search code to record a pass. */
+    public static final int PASS = 64;
+
+    /** Every square except those with y == 0 or y == 7. */
+    private static final long INNER_COLS = 0x7E7E7E7E7E7E7E7EL;
+
+    /** Black and white discs of the standard starting position. */
+    public static final long START_BLACK = bit(3, 4) | bit(4, 3);
+    public static final long START_WHITE = bit(3, 3) | bit(4, 4);
+
+    private BitBoard() {
+    }
+
+    /**
+     * @return the mask with only square (x, y) set
+     */
+    public static long bit(int x, int y) {
+        return 1L << (x * 8 + y);
+    }
+
+    /**
+     * Builds the mask of all spaces of one colour.
+     * @param board an 8x8 board
+     * @param color the colour to collect
+     * @return a mask with a bit for every space of that colour
+     */
+    public static long fromBoard(BoardSpace[][] board, BoardSpace.SpaceType color) {
+        long mask = 0;
+        for (int x = 0; x < board.length; x++) {
+            for (int y = 0; y < board[x].length; y++) {
+                if (board[x][y].getType() == color) {
+                    mask |= bit(x, y);
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @param own discs of the side to move
+     * @param opp discs of the other side
+     * @return mask of the empty squares where the side to move may play
+     */
+    public static long legalMoves(long own, long opp) {
+        long empty = ~(own | opp);
+        // opponent discs away from the y edges, so sideways runs cannot wrap
+        long inner = opp & INNER_COLS;
+        return (movesLeft(own, inner, empty, 1)          // y + 1
+                | movesRight(own, inner, empty, 1)       // y - 1
+                | movesLeft(own, opp, empty, 8)          // x + 1
+                | movesRight(own, opp, empty, 8)         // x - 1
+                | movesLeft(own, inner, empty, 9)        // x + 1, y + 1
+                | movesLeft(own, inner, empty, 7)        // x + 1, y - 1
+                | movesRight(own, inner, empty, 7)       // x - 1, y + 1
+                | movesRight(own, inner, empty, 9));     // x - 1, y - 1
+    }
+
+    private static long movesLeft(long own, long opp, long empty, int s) {
+        long run = (own << s) & opp;
+        run |= (run << s) & opp;
+        run |= (run << s) & opp;
+        run |= (run << s) & opp;
+        run |= (run << s) & opp;
+        run |= (run << s) & opp;
+        return (run << s) & empty;
+    }
+
+    private static long movesRight(long own, long opp, long empty, int s) {
+        long run = (own >>> s) & opp;
+        run |= (run >>> s) & opp;
+        run |= (run >>> s) & opp;
+        run |= (run >>> s) & opp;
+        run |= (run >>> s) & opp;
+        run |= (run >>> s) & opp;
+        return (run >>> s) & empty;
+    }
+
+    /**
+     * @param own discs of the side to move
+     * @param opp discs of the other side
+     * @param sq the square being played (must be empty)
+     * @return mask of the opponent discs flipped by playing sq (0 if the move is illegal)
+     */
+    public static long flips(long own, long opp, int sq) {
+        long start = 1L << sq;
+        long inner = opp & INNER_COLS;
+        return flipsLeft(start, own, inner, 1)
+                | flipsRight(start, own, inner, 1)
+                | flipsLeft(start, own, opp, 8)
+                | flipsRight(start, own, opp, 8)
+                | flipsLeft(start, own, inner, 9)
+                | flipsLeft(start, own, inner, 7)
+                | flipsRight(start, own, inner, 7)
+                | flipsRight(start, own, inner, 9);
+    }
+
+    private static long flipsLeft(long start, long own, long opp, int s) {
+        long run = (start << s) & opp;
+        run |= (run << s) & opp;
+        run |= (run << s) & opp;
+        run |= (run << s) & opp;
+        run |= (run << s) & opp;
+        run |= (run << s) & opp;
+        return ((run << s) & own) != 0 ? run : 0;
+    }
+
+    private static long flipsRight(long start, long own, long opp, int s) {
+        long run = (start >>> s) & opp;
+        run |= (run >>> s) & opp;
+        run |= (run >>> s) & opp;
+        run |= (run >>> s) & opp;
+        run |= (run >>> s) & opp;
+        run |= (run >>> s) & opp;
+        return ((run >>> s) & own) != 0 ? run : 0;
+    }
+
+    /**
+     * Picks the index-th set bit of a mask.
+     * @param mask a non-zero mask
+     * @param index which set bit to return, 0 = lowest
+     * @return the square of that bit
+     */
+    public static int nthSquare(long mask, int index) {
+        for (int i = 0; i < index; i++) {
+            mask &= mask - 1;
+        }
+        return Long.numberOfTrailingZeros(mask);
+    }
+
+    /**
+     * Mixes a position into a 64-bit key for on-disk tables. The side to
+     * move is part of the position: swapping own and opp gives another key.
+     * @param own discs of the side to move
+     * @param opp discs of the other side
+     */
+    public static long hash(long own, long opp) {
+        long h = own * 0x9E3779B97F4A7C15L + Long.rotateLeft(opp * 0xC2B2AE3D27D4EB4FL, 31);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ h >>> 33;
+    }
+}
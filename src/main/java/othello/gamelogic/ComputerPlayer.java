@@ -1,16 +1,38 @@
 package othello.gamelogic;
 
+import othello.gamelogic.book.OpeningBook;
 import othello.gamelogic.strategy.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 public class ComputerPlayer extends Player {
+    /** Runs the asynchronous decisions of every computer player, one at a time. */
+    private static final ExecutorService ENGINE = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "othello-engine");
+        t.setDaemon(true);
+        return t;
+    });
+
     private final Strategy strategy;
+    private OpeningBook book;  // consulted before the strategy, null = none
 
     /**
      * Constructs a computer player using a specific strategy name.
-     * @param strategyName the name of the strategy, like "minimax", "mcts", etc.
+     * @param strategyName the name of the strategy, like "minimax", "mcts", etc.,
+     *                     or a spec with options (see {@link StrategyFactory})
      */
     public ComputerPlayer(String strategyName) {
-        this.strategy = StrategyFactory.create(strategyName.toLowerCase());
+        this.strategy = StrategyFactory.create(strategyName.trim());
+    }
+
+    /**
+     * Constructs a computer player around an already configured strategy.
+     * @param strategy the strategy that picks this player's moves
+     */
+    public ComputerPlayer(Strategy strategy) {
+        this.strategy = strategy;
     }
 
     /**
@@ -19,7 +41,92 @@ public class ComputerPlayer extends Player {
      * @return the chosen BoardSpace to play
      */
     public BoardSpace chooseMove(OthelloGame game) {
-        return strategy.chooseMove(game, this);
+        BoardSpace bookMove = bookMove(game);
+        return bookMove != null ? bookMove : strategy.chooseMove(game, this);
+    }
+
+    /**
+     * Chooses a move within per-decision limits, e.g. a server's latency budget.
+     * @param game the current game state
+     * @param limits deadline, node and depth limits for this decision
+     * @param cancel lets another thread stop the search early
+     * @return the chosen BoardSpace to play
+     */
+    public BoardSpace chooseMove(OthelloGame game, SearchLimits limits, CancellationToken cancel) {
+        BoardSpace bookMove = bookMove(game);
+        return bookMove != null ? bookMove : strategy.chooseMove(game, this, limits, cancel);
+    }
+
+    /**
+     * Chooses a move on the engine thread, so the caller, e.g. a UI thread,
+     * stays responsive. Progress reports go to the listener of the limits
+     * and are called on the engine thread.
+     * @param game the current game state, left unchanged until the search ends
+     * @param limits deadline, node and depth limits and the progress listener
+     * @param cancel lets another thread stop the search early; cancelling the future does too
+     * @return a future for the chosen BoardSpace
+     */
+    public CompletableFuture<BoardSpace> chooseMoveAsync(OthelloGame game, SearchLimits limits,
+                                                         CancellationToken cancel) {
+        BoardSpace bookMove = bookMove(game);
+        return bookMove != null
+                ? CompletableFuture.completedFuture(bookMove)
+                : strategy.chooseMoveAsync(game, this, limits, cancel, ENGINE);
+    }
+
+    /**
+     * Sets the opening book whose moves this player plays, without a search,
+     * while the position is in it.
+     * @param book the book, or null for none
+     */
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    public OpeningBook getOpeningBook() {
+        return book;
+    }
+
+    /**
+     * @return the book move for this player in the current position, or null if there is none
+     */
+    private BoardSpace bookMove(OthelloGame game) {
+        if (book == null) {
+            return null;
+        }
+        BoardSpace.SpaceType oppColor = getColor() == BoardSpace.SpaceType.BLACK
+                ? BoardSpace.SpaceType.WHITE
+                : BoardSpace.SpaceType.BLACK;
+        BoardSpace[][] board = game.getBoard();
+        int sq = book.probe(BitBoard.fromBoard(board, getColor()), BitBoard.fromBoard(board, oppColor));
+        return sq < 0 ? null : board[sq / OthelloGame.GAME_BOARD_SIZE][sq % OthelloGame.GAME_BOARD_SIZE];
+    }
+
+    /**
+     * Lets the strategy think in the background while the opponent is on
+     * move, if it supports pondering.
+     * @param game the current game state, with the opponent to move
+     */
+    public void startPondering(OthelloGame game) {
+        if (strategy instanceof Ponderable ponderable) {
+            ponderable.startPondering(game, this);
+        }
+    }
+
+    /**
+     * Stops background thinking started by {@link #startPondering}.
+     */
+    public void stopPondering() {
+        if (strategy instanceof Ponderable ponderable) {
+            ponderable.stopPondering();
+        }
+    }
+
+    /**
+     * Releases the threads of the strategy, once this player is done playing.
+     */
+    public void close() {
+        strategy.close();
     }
 
 }
@@ -1,7 +1,10 @@
 package othello.gamelogic;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import othello.gamelogic.state.GameMemento;
+import othello.gamelogic.strategy.CancellationToken;
+import othello.gamelogic.strategy.SearchLimits;
 /**
  * Models a board of Othello.
  * Includes methods to get available moves and take spaces.
@@ -165,6 +168,18 @@ public class OthelloGame {
         return computer.chooseMove(this);
     }
 
+    /**
+     * Gets the computer decision for its turn without blocking the caller.
+     * @param computer computer player that is deciding their move for their turn
+     * @param limits limits and progress listener of the decision
+     * @param cancel lets the caller stop the search early
+     * @return a future for the BoardSpace that was decided upon
+     */
+    public CompletableFuture<BoardSpace> computerDecisionAsync(ComputerPlayer computer, SearchLimits limits,
+                                                               CancellationToken cancel) {
+        return computer.chooseMoveAsync(this, limits, cancel);
+    }
+
     public void setBoard(BoardSpace[][] board) {
         this.board = board;
     }
@@ -0,0 +1,146 @@
+package othello.gamelogic.book;
+
+import othello.gamelogic.BitBoard;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only opening book, memory-mapped from a file written by
+ * {@link OpeningBookBuilder}. A probe is a binary search over the mapped
+ * entries using absolute reads, so it allocates nothing and any number of
+ * threads may probe at once.
+ *
+ * File layout, big-endian: a header of magic, format version, entry count
+ * and the ply the book was built to (four ints), then the entries sorted by
+ * key. An entry is the position's {@link BitBoard#hash} key (long), the
+ * book move as x * 8 + y (byte), the position's ply (byte) and its score,
+ * the side to move's win probability in units of 1/10000 (short).
+ */
+public final class OpeningBook {
+    static final int MAGIC = 0x4F424F4B;  // "OBOK"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int ENTRY_BYTES = 12;
+    /** Score units per win probability of 1. */
+    static final int SCORE_SCALE = 10_000;
+
+    private final MappedByteBuffer entries;
+    private final int size;
+    private final int maxPly;
+
+    private OpeningBook(MappedByteBuffer entries, int size, int maxPly) {
+        this.entries = entries;
+        this.size = size;
+        this.maxPly = maxPly;
+    }
+
+    /**
+     * Maps a book file. The file stays mapped until the book is garbage collected.
+     * @throws IOException if the file cannot be read or is not a book
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+                throw new IOException("Not an opening book, or an unsupported version: " + file);
+            }
+            int size = map.getInt(8);
+            if (size < 0 || length != HEADER_BYTES + (long) size * ENTRY_BYTES) {
+                throw new IOException("Truncated opening book: " + file);
+            }
+            return new OpeningBook(map, size, map.getInt(12));
+        }
+    }
+
+    /**
+     * @return number of positions in the book
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the ply the book was built to
+     */
+    public int getMaxPly() {
+        return maxPly;
+    }
+
+    /**
+     * @param own discs of the side to move
+     * @param opp discs of the other side
+     * @return the entry of the position, or -1 if it is not in the book
+     */
+    public int find(long own, long opp) {
+        long key = BitBoard.hash(own, opp);
+        int lo = 0;
+        int hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long k = entries.getLong(offset(mid));
+            if (k < key) {
+                lo = mid + 1;
+            } else if (k > key) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the book move for the side to move as x * 8 + y, or -1 if the
+     *         position is not in the book or the stored move is not legal
+     *         there (a key collision)
+     */
+    public int probe(long own, long opp) {
+        int entry = find(own, opp);
+        if (entry < 0) {
+            return -1;
+        }
+        int sq = move(entry);
+        return (BitBoard.legalMoves(own, opp) >>> sq & 1) != 0 ? sq : -1;
+    }
+
+    /**
+     * @return the book move of an entry as x * 8 + y
+     */
+    public int move(int entry) {
+        return entries.get(offset(entry) + 8);
+    }
+
+    /**
+     * @return the ply of an entry's position
+     */
+    public int ply(int entry) {
+        return entries.get(offset(entry) + 9);
+    }
+
+    /**
+     * @return the side to move's win probability after the book move, in [0, 1]
+     */
+    public double score(int entry) {
+        return entries.getShort(offset(entry) + 10) / (double) SCORE_SCALE;
+    }
+
+    private static int offset(int entry) {
+        return HEADER_BYTES + entry * ENTRY_BYTES;
+    }
+
+    /**
+     * Writes an entry in book format; used by the builder.
+     */
+    static void putEntry(ByteBuffer out, long key, int move, int ply, double score) {
+        out.putLong(key).put((byte) move).put((byte) ply).putShort((short) Math.round(score * SCORE_SCALE));
+    }
+}
@@ -0,0 +1,350 @@
+package othello.gamelogic.book;
+
+import othello.gamelogic.BitBoard;
+import othello.gamelogic.strategy.PlayoutEngine;
+import othello.gamelogic.strategy.StaticEvaluator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Builds an {@link OpeningBook} by drop-out expansion from the starting
+ * position. Every position added to the tree is scored by an alpha-beta
+ * search over {@link StaticEvaluator} win probabilities, optionally
+ * averaged with the win rate of heavy self-play playouts, and scores are
+ * backed up by negamax.
+ *
+ * Each step expands the leaf with the lowest drop-out priority: the plies
+ * from the root times the depth penalty, plus, for every move on the way,
+ * how much worse that move scores than the best move of its position. So
+ * the main lines are explored deepest and a line is dropped once it is
+ * clearly worse, whichever side plays it. Expansion stops at the maximum
+ * ply or after the configured number of positions.
+ *
+ * Setters return this builder so options can be chained:
+ * <pre>new OpeningBookBuilder().setMaxPly(12).setPositions(5000).write(path)</pre>
+ * Or from the command line:
+ * <pre>java othello.gamelogic.book.OpeningBookBuilder book.bin [maxPly [positions [depth [playouts]]]]</pre>
+ */
+public class OpeningBookBuilder {
+    private int maxPly = 10;
+    private int positions = 2000;
+    private int searchDepth = 4;
+    private int playouts = 0;
+    private double depthPenalty = 0.02;
+    private long seed = 1;
+
+    /** A position of the book tree, scored for its side to move. */
+    private static final class Node {
+        final long own;
+        final long opp;
+        final int ply;
+        final int move;      // square played to reach this node, BitBoard.PASS for a pass
+        double value;        // win probability of the side to move
+        Node[] children;     // null until expanded
+        boolean terminal;    // game over: value is exact
+        double priority;
+
+        Node(long own, long opp, int ply, int move) {
+            this.own = own;
+            this.opp = opp;
+            this.ply = ply;
+            this.move = move;
+        }
+    }
+
+    public int getMaxPly() {
+        return maxPly;
+    }
+
+    /**
+     * @param maxPly plies the book covers: positions before this ply can get a book move
+     */
+    public OpeningBookBuilder setMaxPly(int maxPly) {
+        if (maxPly < 1 || maxPly > 60) {
+            throw new IllegalArgumentException("maxPly must be in [1, 60]: " + maxPly);
+        }
+        this.maxPly = maxPly;
+        return this;
+    }
+
+    public int getPositions() {
+        return positions;
+    }
+
+    /**
+     * @param positions number of positions to expand, which bounds the book size
+     */
+    public OpeningBookBuilder setPositions(int positions) {
+        if (positions < 1) {
+            throw new IllegalArgumentException("positions must be at least 1: " + positions);
+        }
+        this.positions = positions;
+        return this;
+    }
+
+    public int getSearchDepth() {
+        return searchDepth;
+    }
+
+    /**
+     * @param searchDepth plies of the alpha-beta search that scores each new position
+     */
+    public OpeningBookBuilder setSearchDepth(int searchDepth) {
+        if (searchDepth < 0) {
+            throw new IllegalArgumentException("searchDepth must not be negative: " + searchDepth);
+        }
+        this.searchDepth = searchDepth;
+        return this;
+    }
+
+    public int getPlayouts() {
+        return playouts;
+    }
+
+    /**
+     * @param playouts self-play playouts per new position, whose win rate is
+     *                 averaged with the search score; 0 = search only
+     */
+    public OpeningBookBuilder setPlayouts(int playouts) {
+        if (playouts < 0) {
+            throw new IllegalArgumentException("playouts must not be negative: " + playouts);
+        }
+        this.playouts = playouts;
+        return this;
+    }
+
+    public double getDepthPenalty() {
+        return depthPenalty;
+    }
+
+    /**
+     * @param depthPenalty drop-out priority added per ply, in win probability:
+     *                     higher values make the book wider and shallower
+     */
+    public OpeningBookBuilder setDepthPenalty(double depthPenalty) {
+        if (!(depthPenalty > 0)) {
+            throw new IllegalArgumentException("depthPenalty must be positive: " + depthPenalty);
+        }
+        this.depthPenalty = depthPenalty;
+        return this;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public OpeningBookBuilder setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Builds the book and writes it to a file, replacing any existing one.
+     * @return number of positions written
+     */
+    public int write(Path file) throws IOException {
+        Node root = build();
+        // breadth first, so a position reached by several move orders keeps its shallowest entry
+        Map<Long, Node> byKey = new HashMap<>();
+        Deque<Node> queue = new ArrayDeque<>(List.of(root));
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            if (node.children == null) {
+                continue;
+            }
+            if (node.children[0].move != BitBoard.PASS) {
+                byKey.putIfAbsent(BitBoard.hash(node.own, node.opp), node);
+            }
+            queue.addAll(Arrays.asList(node.children));
+        }
+        List<Long> keys = new ArrayList<>(byKey.keySet());
+        Collections.sort(keys);
+
+        ByteBuffer out = ByteBuffer.allocate(OpeningBook.HEADER_BYTES + keys.size() * OpeningBook.ENTRY_BYTES);
+        out.putInt(OpeningBook.MAGIC).putInt(OpeningBook.VERSION).putInt(keys.size()).putInt(maxPly);
+        for (long key : keys) {
+            Node node = byKey.get(key);
+            OpeningBook.putEntry(out, key, best(node).move, node.ply, node.value);
+        }
+        out.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+        return keys.size();
+    }
+
+    /**
+     * Grows the book tree by drop-out expansion.
+     * @return the root, the starting position with black to move
+     */
+    private Node build() {
+        SplittableRandom random = new SplittableRandom(seed);
+        PlayoutEngine engine = new PlayoutEngine(random, 0.25);
+        Node root = new Node(BitBoard.START_BLACK, BitBoard.START_WHITE, 0, BitBoard.PASS);
+        root.value = score(root, engine);
+        for (int expanded = 0; expanded < positions; expanded++) {
+            backUp(root);
+            root.priority = 0;
+            Node leaf = cheapestLeaf(root);
+            if (leaf == null) {
+                break;  // every line reached maxPly or the end of the game
+            }
+            expand(leaf, engine);
+        }
+        backUp(root);
+        return root;
+    }
+
+    private void expand(Node node, PlayoutEngine engine) {
+        long moves = BitBoard.legalMoves(node.own, node.opp);
+        if (moves == 0) {
+            // pass: the only child is the same position with the other side to move
+            Node pass = new Node(node.opp, node.own, node.ply + 1, BitBoard.PASS);
+            pass.value = score(pass, engine);
+            node.children = new Node[]{pass};
+            return;
+        }
+        node.children = new Node[Long.bitCount(moves)];
+        for (int i = 0; moves != 0; moves &= moves - 1, i++) {
+            int sq = Long.numberOfTrailingZeros(moves);
+            long flipped = BitBoard.flips(node.own, node.opp, sq);
+            Node child = new Node(node.opp & ~flipped, node.own | flipped | (1L << sq), node.ply + 1, sq);
+            child.value = score(child, engine);
+            node.children[i] = child;
+        }
+    }
+
+    /**
+     * Scores a new position, marking it terminal if the game is over.
+     */
+    private double score(Node node, PlayoutEngine engine) {
+        if (BitBoard.legalMoves(node.own, node.opp) == 0 && BitBoard.legalMoves(node.opp, node.own) == 0) {
+            node.terminal = true;
+            return result(node.own, node.opp);
+        }
+        double value = search(node.own, node.opp, searchDepth, 0, 1);
+        if (playouts > 0) {
+            int wins2 = 0;  // wins count 2, draws 1
+            for (int i = 0; i < playouts; i++) {
+                int margin = engine.playout(node.own, node.opp);
+                wins2 += margin > 0 ? 2 : margin == 0 ? 1 : 0;
+            }
+            value = (value + wins2 / (2.0 * playouts)) / 2;
+        }
+        return value;
+    }
+
+    /**
+     * Fail-hard alpha-beta negamax over win probabilities.
+     * @return the win probability of the side to move, clamped to [alpha, beta]
+     */
+    private static double search(long own, long opp, int depth, double alpha, double beta) {
+        long moves = BitBoard.legalMoves(own, opp);
+        if (moves == 0) {
+            if (BitBoard.legalMoves(opp, own) == 0) {
+                return Math.max(alpha, Math.min(beta, result(own, opp)));
+            }
+            if (depth == 0) {
+                return Math.max(alpha, Math.min(beta, StaticEvaluator.winProbability(own, opp)));
+            }
+            return 1 - search(opp, own, depth - 1, 1 - beta, 1 - alpha);
+        }
+        if (depth == 0) {
+            return Math.max(alpha, Math.min(beta, StaticEvaluator.winProbability(own, opp)));
+        }
+        for (; moves != 0; moves &= moves - 1) {
+            int sq = Long.numberOfTrailingZeros(moves);
+            long flipped = BitBoard.flips(own, opp, sq);
+            double value = 1 - search(opp & ~flipped, own | flipped | (1L << sq), depth - 1, 1 - beta, 1 - alpha);
+            if (value >= beta) {
+                return beta;
+            }
+            alpha = Math.max(alpha, value);
+        }
+        return alpha;
+    }
+
+    /**
+     * @return 1, 0.5 or 0 for a finished game won, drawn or lost by own
+     */
+    private static double result(long own, long opp) {
+        return Math.signum(Long.bitCount(own) - Long.bitCount(opp)) / 2 + 0.5;
+    }
+
+    /**
+     * Negamax back-up of the leaf scores through the expanded nodes.
+     */
+    private static void backUp(Node node) {
+        if (node.children == null) {
+            return;
+        }
+        double best = 0;
+        for (Node child : node.children) {
+            backUp(child);
+            best = Math.max(best, 1 - child.value);
+        }
+        node.value = best;
+    }
+
+    /**
+     * Sets the drop-out priorities below a node whose own priority is set,
+     * and returns the expandable leaf with the lowest one.
+     */
+    private Node cheapestLeaf(Node node) {
+        if (node.children == null) {
+            return node.terminal || node.ply >= maxPly ? null : node;
+        }
+        Node cheapest = null;
+        for (Node child : node.children) {
+            // how much worse than the best move, for the side choosing it
+            child.priority = node.priority + depthPenalty + (node.value - (1 - child.value));
+            Node leaf = cheapestLeaf(child);
+            if (leaf != null && (cheapest == null || leaf.priority < cheapest.priority)) {
+                cheapest = leaf;
+            }
+        }
+        return cheapest;
+    }
+
+    private static Node best(Node node) {
+        Node best = node.children[0];
+        for (Node child : node.children) {
+            if (child.value < best.value) {
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: OpeningBookBuilder <file> [maxPly [positions [depth [playouts]]]]");
+            System.exit(1);
+        }
+        OpeningBookBuilder builder = new OpeningBookBuilder();
+        if (args.length > 1) {
+            builder.setMaxPly(Integer.parseInt(args[1]));
+        }
+        if (args.length > 2) {
+            builder.setPositions(Integer.parseInt(args[2]));
+        }
+        if (args.length > 3) {
+            builder.setSearchDepth(Integer.parseInt(args[3]));
+        }
+        if (args.length > 4) {
+            builder.setPlayouts(Integer.parseInt(args[4]));
+        }
+        long start = System.nanoTime();
+        int written = builder.write(Path.of(args[0]));
+        System.out.printf("%,d positions to ply %d in %.1f s%n", written, builder.getMaxPly(),
+                (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,18 @@
+package othello.gamelogic.strategy;
+
+/**
+ * Cooperative cancellation of a running decision. Another thread calls
+ * {@link #cancel()}; the strategy notices at its next check, stops searching
+ * and returns the best move it has found so far, which is always legal.
+ */
+public class CancellationToken {
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,129 @@
+package othello.gamelogic.strategy;
+
+import java.util.Objects;
+
+/**
+ * Tuning knobs for {@link CustomStrategy}.
+ * Setters return this config so options can be chained:
+ * <pre>new CustomConfig().setThreads(4).setSeed(42)</pre>
+ */
+public class CustomConfig {
+    /** How the rollouts of a decision are shared out among the candidate moves. */
+    public enum Allocation {
+        /** the same number of rollouts for every candidate */
+        FLAT,
+        /** successive halving: rounds of equal rollouts, keeping the better half each round */
+        HALVING
+    }
+
+    private int threads = 1;
+    private int rollouts = 50;
+    private long seed = 0;
+    private Allocation allocation = Allocation.FLAT;
+    private int budget = 0;
+    private double stopDelta = 0.01;
+    private double playoutEpsilon = 1;
+
+    /**
+     * @return number of threads sharing the rollouts of a decision
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    public CustomConfig setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1: " + threads);
+        }
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * @return random playouts per candidate move with {@link Allocation#FLAT}
+     */
+    public int getRollouts() {
+        return rollouts;
+    }
+
+    public CustomConfig setRollouts(int rollouts) {
+        if (rollouts < 1) {
+            throw new IllegalArgumentException("rollouts must be at least 1: " + rollouts);
+        }
+        this.rollouts = rollouts;
+        return this;
+    }
+
+    /**
+     * @return master seed for the per-worker random streams (0 = seed from the
+     *         clock); with a seed every decision is reproducible for a given
+     *         thread count
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    public CustomConfig setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * @return chance that a playout move is uniformly random rather than the
+     *         heavy policy's choice (see {@link PlayoutEngine}), in [0, 1];
+     *         1 = plain uniform playouts
+     */
+    public double getPlayoutEpsilon() {
+        return playoutEpsilon;
+    }
+
+    public CustomConfig setPlayoutEpsilon(double playoutEpsilon) {
+        if (!(playoutEpsilon >= 0 && playoutEpsilon <= 1)) {
+            throw new IllegalArgumentException("playoutEpsilon must be in [0, 1]: " + playoutEpsilon);
+        }
+        this.playoutEpsilon = playoutEpsilon;
+        return this;
+    }
+
+    public Allocation getAllocation() {
+        return allocation;
+    }
+
+    public CustomConfig setAllocation(Allocation allocation) {
+        this.allocation = Objects.requireNonNull(allocation);
+        return this;
+    }
+
+    /**
+     * @return total rollouts of a decision with {@link Allocation#HALVING}
+     *         (0 = as many as FLAT would play)
+     */
+    public int getBudget() {
+        return budget;
+    }
+
+    public CustomConfig setBudget(int budget) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("budget must not be negative: " + budget);
+        }
+        this.budget = budget;
+        return this;
+    }
+
+    /**
+     * @return error probability of each win-rate confidence interval; with
+     *         {@link Allocation#HALVING} the decision ends as soon as the
+     *         leader's interval lies above all the others, in (0, 1)
+     */
+    public double getStopDelta() {
+        return stopDelta;
+    }
+
+    public CustomConfig setStopDelta(double stopDelta) {
+        if (!(stopDelta > 0 && stopDelta < 1)) {
+            throw new IllegalArgumentException("stopDelta must be in (0, 1): " + stopDelta);
+        }
+        this.stopDelta = stopDelta;
+        return this;
+    }
+}
@@ -1,11 +1,13 @@
 package othello.gamelogic.strategy;
 
+import othello.gamelogic.BitBoard;
 import othello.gamelogic.BoardSpace;
 import othello.gamelogic.OthelloGame;
 import othello.gamelogic.Player;
-import othello.gamelogic.HumanPlayer;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.function.BooleanSupplier;
 
 /**
  * CustomStrategy: a corner-priority + flat Monte Carlo rollout AI.
@@ -18,14 +20,88 @@ import java.util.*;
  *
  * Complexity: O(M * R) playouts per move decision, where
  * M ≈ average branching factor and R = number of rollouts.
+ *
+ * With {@link CustomConfig.Allocation#HALVING} a total budget B is spent by
+ * successive halving instead: in each of ceil(log2 M) rounds every
+ * surviving move gets B / (survivors * rounds) more rollouts and the worse
+ * half is dropped. The decision ends early once the leader's Hoeffding
+ * interval lies above every other survivor's.
+ *
+ * {@link SearchLimits} count rollouts as nodes: a node limit caps the
+ * rollouts of a decision (at least one per move). A deadline or
+ * cancellation ends the rollouts in progress, and the move is chosen from
+ * the rollouts played so far. Progress is reported from the calling
+ * thread's slice, reading the other slices' running counts as they go.
+ *
+ * With a {@link PositionCache} the rollout decision of a position is read
+ * from the cache when an earlier one spent at least as many rollouts on it,
+ * counted on a log2 scale as the entry's depth.
+ *
+ * The M * R playouts are cut into one contiguous slice per thread. Every
+ * slice plays with its own random stream split from the decision's master
+ * stream in a fixed order, so a seeded decision does not depend on how the
+ * threads are scheduled.
  */
 public class CustomStrategy implements Strategy {
-    // Number of random playouts per candidate move
-    private static final int ROLLOUTS = 50;
-    private static final Random RANDOM = new Random();
+    private final CustomConfig config;
+    private final WorkerPool workers;
+    private SplittableRandom seeds;  // master stream of an unseeded strategy
+    private volatile int lastPlayouts;
+    private PositionCache cache;     // null = none
+
+    /**
+     * Single-threaded rollouts, 50 per candidate move.
+     */
+    public CustomStrategy() {
+        this(new CustomConfig());
+    }
+
+    public CustomStrategy(CustomConfig config) {
+        this.config = config;
+        workers = new WorkerPool("Custom", Math.max(config.getThreads() - 1, 1));
+    }
+
+    /**
+     * Reads the rollout decision of every position through a persistent
+     * cache, and writes back every decision that was not stopped early.
+     * Corner moves are not cached; they are played without rollouts.
+     * @param cache the cache, or null for none
+     */
+    public void setPositionCache(PositionCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Registers "custom". Options, each setting the {@link CustomConfig}
+     * property of the same name unless noted: threads, rollouts, seed,
+     * allocation, budget, stopDelta and epsilon (playoutEpsilon), and cache
+     * and cacheMB as for minimax.
+     */
+    public static final class Provider implements StrategyProvider {
+        @Override
+        public String name() {
+            return "custom";
+        }
+
+        @Override
+        public Strategy create(StrategySpec spec) {
+            CustomConfig config = new CustomConfig();
+            spec.ifInt("threads", config::setThreads);
+            spec.ifInt("rollouts", config::setRollouts);
+            spec.ifLong("seed", config::setSeed);
+            spec.ifEnum("allocation", CustomConfig.Allocation.class, config::setAllocation);
+            spec.ifInt("budget", config::setBudget);
+            spec.ifDouble("stopDelta", config::setStopDelta);
+            spec.ifDouble("epsilon", config::setPlayoutEpsilon);
+            CustomStrategy strategy = new CustomStrategy(config);
+            strategy.setPositionCache(PositionCache.fromSpec(spec));
+            spec.checkAllUsed();
+            return strategy;
+        }
+    }
 
     @Override
-    public BoardSpace chooseMove(OthelloGame game, Player me) {
+    public BoardSpace chooseMove(OthelloGame game, Player me, SearchLimits limits, CancellationToken cancel) {
         Map<BoardSpace, List<BoardSpace>> legalMoves = game.getAvailableMoves(me);
         if (legalMoves == null || legalMoves.isEmpty()) {
             return null;  // No legal move
@@ -41,99 +117,221 @@ public class CustomStrategy implements Strategy {
                 cornerOptions.add(bs);
             }
         }
+        SplittableRandom master = masterStream();
+        ProgressReporter progress = new ProgressReporter(limits, game);
         if (!cornerOptions.isEmpty()) {
-            return cornerOptions.get(RANDOM.nextInt(cornerOptions.size()));
+            BoardSpace corner = cornerOptions.get(master.nextInt(cornerOptions.size()));
+            progress.report(0, 0, corner, Double.NaN);
+            return corner;
+        }
+
+        // 2) Monte Carlo rollouts for non-corner moves, in a fixed move order
+        long own = BitBoard.fromBoard(game.getBoard(), me.getColor());
+        long opp = BitBoard.fromBoard(game.getBoard(), opponentColor(me));
+        List<BoardSpace> candidates = new ArrayList<>(legalMoves.keySet());
+        candidates.sort(Comparator.comparingInt(m -> m.getX() * OthelloGame.GAME_BOARD_SIZE + m.getY()));
+        int[] wins = new int[candidates.size()];
+        int[] plays = new int[candidates.size()];
+        List<Integer> survivors = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            survivors.add(i);
         }
+        long deadline = limits.deadlineOrMax();
+        BooleanSupplier stop = () -> cancel.isCancelled() || System.nanoTime() >= deadline;
+        long maxNodes = limits.getMaxNodes() > 0 ? limits.getMaxNodes() : Long.MAX_VALUE;
+        boolean flat = config.getAllocation() == CustomConfig.Allocation.FLAT;
+        int each = (int) Math.max(1, Math.min(config.getRollouts(), maxNodes / candidates.size()));
+        int budget = (int) Math.min(config.getBudget() > 0 ? config.getBudget()
+                : (long) config.getRollouts() * candidates.size(), maxNodes);
+        int level = 32 - Integer.numberOfLeadingZeros(flat ? each * candidates.size() : budget);
+
+        // a position already decided with at least as many rollouts, in this or an earlier session
+        long key = 0;
+        if (cache != null) {
+            key = PositionCache.key(own, opp, "custom");
+            PositionCache.Entry hit = cache.probeRoot(key, level, BitBoard.legalMoves(own, opp));
+            if (hit != null) {
+                BoardSpace move = game.getBoard()[hit.move() / OthelloGame.GAME_BOARD_SIZE]
+                        [hit.move() % OthelloGame.GAME_BOARD_SIZE];
+                lastPlayouts = 0;
+                progress.report(1, 0, move, hit.score());
+                return move;
+            }
+        }
+
+        if (flat) {
+            rollouts(own, opp, candidates, survivors, each, wins, plays, master, stop, progress);
+        } else {
+            halve(own, opp, candidates, survivors, budget, wins, plays, master, stop, progress);
+        }
+        lastPlayouts = Arrays.stream(plays).sum();
 
-        // 2) Monte Carlo rollouts for non-corner moves
         double bestWinRate = -1.0;
         BoardSpace bestMove = null;
-        for (BoardSpace move : legalMoves.keySet()) {
-            int wins = 0;
-            for (int i = 0; i < ROLLOUTS; i++) {
-                if (simulatePlayout(game, me, move)) {
-                    wins++;
-                }
-            }
-            double winRate = (double) wins / ROLLOUTS;
+        for (int i : survivors) {
+            // a lone move needs no rollouts, and a stopped search may not have reached every move
+            double winRate = plays[i] == 0 ? 0 : (double) wins[i] / plays[i];
             if (winRate > bestWinRate) {
                 bestWinRate = winRate;
-                bestMove = move;
+                bestMove = candidates.get(i);
             }
         }
+        if (cache != null && !stop.getAsBoolean()) {
+            cache.put(key, bestMove.getX() * OthelloGame.GAME_BOARD_SIZE + bestMove.getY(), level,
+                    (float) bestWinRate);
+        }
+        progress.report(1, lastPlayouts, bestMove, bestWinRate);
         return bestMove;
     }
 
     /**
-     * Run one random-playout from the given move and return true if 'me' wins.
+     * Shuts down the worker threads.
+     */
+    @Override
+    public void close() {
+        workers.close();
+    }
+
+    /**
+     * @return rollouts played by the most recent decision (0 for a corner move)
      */
-    private boolean simulatePlayout(OthelloGame original, Player me, BoardSpace move) {
-        // 1) Clone the game state
-        OthelloGame sim = cloneGame(original);
-        Player simMe = matchPlayer(sim, me);
-        Player simOpp = (simMe == sim.getPlayerOne()) ? sim.getPlayerTwo() : sim.getPlayerOne();
-
-        // 2) Play the chosen move
-        Map<BoardSpace, List<BoardSpace>> avail = sim.getAvailableMoves(simMe);
-        sim.takeSpaces(simMe, simOpp, avail, move);
-
-        // 3) Alternate random moves until game end
-        Player current = simOpp;
-        while (true) {
-            Map<BoardSpace, List<BoardSpace>> moves = sim.getAvailableMoves(current);
-            if (moves.isEmpty()) {
-                // pass turn if no moves
-                current = (current == simMe) ? simOpp : simMe;
-                moves = sim.getAvailableMoves(current);
-                if (moves.isEmpty()) break;  // both players pass → end
+    public int getLastPlayouts() {
+        return lastPlayouts;
+    }
+
+    /**
+     * Successive halving over the candidates. Leaves the survivors list
+     * holding the moves still in the running: one, or several if the
+     * leader separated from them early or the search was stopped.
+     */
+    private void halve(long own, long opp, List<BoardSpace> candidates, List<Integer> survivors, int budget,
+                       int[] wins, int[] plays, SplittableRandom master, BooleanSupplier stop,
+                       ProgressReporter progress) {
+        int rounds = Math.max(1, 32 - Integer.numberOfLeadingZeros(candidates.size() - 1));  // ceil(log2 M)
+        double radius = Math.sqrt(Math.log(2 / config.getStopDelta()) / 2);
+        while (survivors.size() > 1) {
+            int each = Math.max(1, budget / (survivors.size() * rounds));
+            rollouts(own, opp, candidates, survivors, each, wins, plays, master, stop, progress);
+            if (stop.getAsBoolean()) {
+                return;
+            }
+            survivors.sort(Comparator.comparingDouble(i -> -(double) wins[i] / plays[i]));
+            int leader = survivors.get(0);
+            double lower = (double) wins[leader] / plays[leader] - radius / Math.sqrt(plays[leader]);
+            boolean separated = true;
+            for (int i : survivors.subList(1, survivors.size())) {
+                separated &= (double) wins[i] / plays[i] + radius / Math.sqrt(plays[i]) < lower;
+            }
+            if (separated) {
+                survivors.subList(1, survivors.size()).clear();
+                return;
             }
-            List<BoardSpace> choices = new ArrayList<>(moves.keySet());
-            BoardSpace pick = choices.get(RANDOM.nextInt(choices.size()));
-            Player other = (current == sim.getPlayerOne()) ? sim.getPlayerTwo() : sim.getPlayerOne();
-            sim.takeSpaces(current, other, moves, pick);
-            current = other;
-        }
-
-        // 4) Count final discs to decide winner
-        BoardSpace.SpaceType myColor = simMe.getColor();
-        BoardSpace.SpaceType opColor = simOpp.getColor();
-        int myCount = 0, opCount = 0;
-        for (BoardSpace[] row : sim.getBoard()) {
-            for (BoardSpace bs : row) {
-                if (bs.getType() == myColor) myCount++;
-                else if (bs.getType() == opColor) opCount++;
+            survivors.subList((survivors.size() + 1) / 2, survivors.size()).clear();
+        }
+    }
+
+    /**
+     * Plays the given number of rollouts for each of the given candidates,
+     * sharing them out over the threads, and adds them to wins and plays.
+     * Every slice ends early once stop is true. The first slice, which runs
+     * on the calling thread, also sends the progress reports.
+     */
+    private void rollouts(long own, long opp, List<BoardSpace> candidates, List<Integer> arms, int each,
+                          int[] wins, int[] plays, SplittableRandom master, BooleanSupplier stop,
+                          ProgressReporter progress) {
+        int total = arms.size() * each;
+        int slices = Math.min(config.getThreads(), total);
+        int[][][] counts = new int[slices][2][arms.size()];  // wins and plays per arm of every slice
+        List<Callable<int[][]>> tasks = new ArrayList<>(slices);
+        for (int t = 0; t < slices; t++) {
+            // rollout k is number k % each of arm k / each
+            int from = (int) ((long) total * t / slices);
+            int to = (int) ((long) total * (t + 1) / slices);
+            PlayoutEngine engine = new PlayoutEngine(master.split(), config.getPlayoutEpsilon());
+            int[][] slice = counts[t];
+            boolean reporting = t == 0;
+            tasks.add(() -> {
+                for (int k = from; k < to && !stop.getAsBoolean(); k++) {
+                    int a = k / each;
+                    if (simulatePlayout(engine, own, opp, candidates.get(arms.get(a)))) {
+                        slice[0][a]++;
+                    }
+                    slice[1][a]++;
+                    if (reporting && progress.isDue()) {
+                        report(progress, candidates, arms, wins, plays, counts);
+                    }
+                }
+                return slice;
+            });
+        }
+        for (int[][] slice : workers.run(tasks)) {
+            for (int a = 0; a < arms.size(); a++) {
+                wins[arms.get(a)] += slice[0][a];
+                plays[arms.get(a)] += slice[1][a];
             }
         }
-        return myCount > opCount;
     }
 
     /**
-     * Deep clone the game: copy board and recreate players.
+     * Reports the best arm so far by win rate, adding the running counts of
+     * the slices in progress to the totals of earlier rounds. The other
+     * slices' counts are read without synchronization, so they may lag a
+     * little; a report is only an estimate.
      */
-    private OthelloGame cloneGame(OthelloGame orig) {
-        Player p1 = new HumanPlayer();
-        Player p2 = new HumanPlayer();
-        p1.setColor(orig.getPlayerOne().getColor());
-        p2.setColor(orig.getPlayerTwo().getColor());
-        OthelloGame copy = new OthelloGame(p1, p2);
-
-        BoardSpace[][] board = orig.getBoard();
-        BoardSpace[][] clone = new BoardSpace[board.length][board[0].length];
-        for (int i = 0; i < board.length; i++) {
-            for (int j = 0; j < board[i].length; j++) {
-                clone[i][j] = new BoardSpace(board[i][j]);
+    private static void report(ProgressReporter progress, List<BoardSpace> candidates, List<Integer> arms,
+                               int[] wins, int[] plays, int[][][] counts) {
+        long played = Arrays.stream(plays).sum();
+        BoardSpace best = null;
+        double bestWinRate = Double.NaN;
+        for (int a = 0; a < arms.size(); a++) {
+            int w = wins[arms.get(a)];
+            int n = plays[arms.get(a)];
+            for (int[][] slice : counts) {
+                w += slice[0][a];
+                n += slice[1][a];
+                played += slice[1][a];
+            }
+            if (n > 0 && (best == null || (double) w / n > bestWinRate)) {
+                bestWinRate = (double) w / n;
+                best = candidates.get(arms.get(a));
             }
         }
-        copy.setBoard(clone);
-        return copy;
+        progress.report(1, played, best, bestWinRate);
     }
 
     /**
-     * Match the cloned player instance by color.
+     * @return the master stream of one decision: fresh from the seed, or
+     *         split from this strategy's own stream when unseeded
      */
-    private Player matchPlayer(OthelloGame sim, Player orig) {
-        return sim.getPlayerOne().getColor() == orig.getColor()
-                ? sim.getPlayerOne()
-                : sim.getPlayerTwo();
+    private synchronized SplittableRandom masterStream() {
+        if (config.getSeed() != 0) {
+            return new SplittableRandom(config.getSeed());
+        }
+        if (seeds == null) {
+            seeds = new SplittableRandom();
+        }
+        return seeds.split();
+    }
+
+    /**
+     * Run one random-playout from the given move and return true if 'me' wins.
+     * Plays on bitboards, so no game state is cloned.
+     */
+    private static boolean simulatePlayout(PlayoutEngine engine, long own, long opp, BoardSpace move) {
+        // 1) Play the chosen move
+        int sq = move.getX() * OthelloGame.GAME_BOARD_SIZE + move.getY();
+        long flipped = BitBoard.flips(own, opp, sq);
+        long mine = own | flipped | (1L << sq);
+        long theirs = opp & ~flipped;
+
+        // 2) Alternate random moves until game end, opponent first;
+        //    the result is the opponent's disc margin
+        return engine.playout(theirs, mine) < 0;
+    }
+
+    private static BoardSpace.SpaceType opponentColor(Player me) {
+        return me.getColor() == BoardSpace.SpaceType.BLACK
+                ? BoardSpace.SpaceType.WHITE
+                : BoardSpace.SpaceType.BLACK;
     }
 }
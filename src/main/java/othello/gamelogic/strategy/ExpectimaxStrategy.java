@@ -2,6 +2,7 @@ package othello.gamelogic.strategy;
 
 import java.util.*;
 import othello.Constants;
+import othello.gamelogic.BitBoard;
 import othello.gamelogic.BoardSpace;
 import othello.gamelogic.OthelloGame;
 import othello.gamelogic.Player;
@@ -10,12 +11,65 @@ import othello.gamelogic.HumanPlayer;
 /**
  * AI strategy using the Expectimax algorithm.
  * Models the opponent's behavior probabilistically rather than assuming optimal play.
+ * A search stopped by its {@link SearchLimits} or cancellation plays the best
+ * root move whose subtree was searched completely.
  */
 public class ExpectimaxStrategy implements Strategy {
     private static final int MAX_DEPTH = 2;
 
+    private final int depth;
+    private PositionCache cache;  // null = none
+
+    /**
+     * Searches {@value #MAX_DEPTH} plies deep.
+     */
+    public ExpectimaxStrategy() {
+        this(MAX_DEPTH);
+    }
+
+    /**
+     * @param depth plies to search when the limits of a decision set no depth
+     */
+    public ExpectimaxStrategy(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("depth must be at least 1: " + depth);
+        }
+        this.depth = depth;
+    }
+
+    /**
+     * Reads the root of every decision through a persistent cache, and
+     * writes back the result of every search that was not stopped early.
+     * @param cache the cache, or null for none
+     */
+    public void setPositionCache(PositionCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Registers "expectimax", with options depth (plies), cache (a
+     * {@link PositionCache} file, shared by the strategies of this process)
+     * and cacheMB (its size cap when first opened, 64 by default).
+     */
+    public static final class Provider implements StrategyProvider {
+        @Override
+        public String name() {
+            return "expectimax";
+        }
+
+        @Override
+        public Strategy create(StrategySpec spec) {
+            ExpectimaxStrategy strategy = new ExpectimaxStrategy(spec.getInt("depth", MAX_DEPTH));
+            strategy.setPositionCache(PositionCache.fromSpec(spec));
+            spec.checkAllUsed();
+            return strategy;
+        }
+    }
+
     @Override
-    public BoardSpace chooseMove(OthelloGame game, Player me) {
+    public BoardSpace chooseMove(OthelloGame game, Player me, SearchLimits limits, CancellationToken cancel) {
+        SearchControl control = new SearchControl(limits, cancel);
+        ProgressReporter progress = new ProgressReporter(limits, game);
         // Identify opponent by color
         Player opponent = (game.getPlayerOne() == me)
                 ? game.getPlayerTwo()
@@ -27,6 +81,22 @@ public class ExpectimaxStrategy implements Strategy {
             return null;
         }
 
+        // a position already searched at least as deep in this or an earlier session
+        long key = 0;
+        int cacheDepth = Math.min(control.depth(depth), PositionCache.MAX_DEPTH);
+        if (cache != null) {
+            long own = BitBoard.fromBoard(game.getBoard(), me.getColor());
+            long opp = BitBoard.fromBoard(game.getBoard(), opponent.getColor());
+            key = PositionCache.key(own, opp, "expectimax");
+            PositionCache.Entry hit = cache.probeRoot(key, cacheDepth, BitBoard.legalMoves(own, opp));
+            if (hit != null) {
+                BoardSpace move = game.getBoard()[hit.move() / OthelloGame.GAME_BOARD_SIZE]
+                        [hit.move() % OthelloGame.GAME_BOARD_SIZE];
+                progress.report(hit.depth(), 0, move, hit.score());
+                return move;
+            }
+        }
+
         BoardSpace bestMove = null;
         double bestValue = Double.NEGATIVE_INFINITY;
 
@@ -41,13 +111,26 @@ public class ExpectimaxStrategy implements Strategy {
             copy.takeSpaces(meCopy, opCopy, copy.getAvailableMoves(meCopy), dest);
 
             // Compute expectimax value: false indicates next is chance node (opponent)
-            double value = expectimax(copy, meCopy, opCopy, MAX_DEPTH - 1, false);
+            double value = expectimax(copy, meCopy, opCopy, control.depth(depth) - 1, false, control);
+            if (control.isStopped()) {
+                break;  // this move's value is incomplete
+            }
             if (value > bestValue) {
                 bestValue = value;
                 bestMove = dest;
             }
+            if (progress.isDue()) {
+                progress.report(control.depth(depth), control.nodes(), bestMove, bestValue);
+            }
+        }
+        if (cache != null && !control.isStopped()) {
+            cache.put(key, bestMove.getX() * OthelloGame.GAME_BOARD_SIZE + bestMove.getY(), cacheDepth,
+                    (float) bestValue);
         }
-        return bestMove;
+        // stopped before any move was valued: any legal move beats none
+        BoardSpace choice = bestMove != null ? bestMove : moves.keySet().iterator().next();
+        progress.report(control.depth(depth), control.nodes(), choice, bestMove != null ? bestValue : Double.NaN);
+        return choice;
     }
 
     /**
@@ -57,13 +140,18 @@ public class ExpectimaxStrategy implements Strategy {
      * @param opponent chance node player
      * @param depth remaining depth
      * @param isMaximizing true if this is a max node, false for chance node
-     * @return expected utility value
+     * @param control limits of the decision
+     * @return expected utility value, or an arbitrary one once control has stopped
      */
     private double expectimax(OthelloGame game,
                               Player me,
                               Player opponent,
                               int depth,
-                              boolean isMaximizing) {
+                              boolean isMaximizing,
+                              SearchControl control) {
+        if (!control.visit()) {
+            return 0;
+        }
         Player current = isMaximizing ? me : opponent;
         Player other   = isMaximizing ? opponent : me;
 
@@ -80,7 +168,7 @@ public class ExpectimaxStrategy implements Strategy {
                 // Game over
                 return evaluateBoard(game, me, opponent);
             }
-            return expectimax(game, me, opponent, depth, !isMaximizing);
+            return expectimax(game, me, opponent, depth, !isMaximizing, control);
         }
 
         if (isMaximizing) {
@@ -92,7 +180,7 @@ public class ExpectimaxStrategy implements Strategy {
                 Player othCopy = (curCopy == copy.getPlayerOne())
                         ? copy.getPlayerTwo() : copy.getPlayerOne();
                 copy.takeSpaces(curCopy, othCopy, copy.getAvailableMoves(curCopy), dest);
-                best = Math.max(best, expectimax(copy, me, opponent, depth - 1, false));
+                best = Math.max(best, expectimax(copy, me, opponent, depth - 1, false, control));
             }
             return best;
         } else {
@@ -106,7 +194,7 @@ public class ExpectimaxStrategy implements Strategy {
                 Player othCopy = (curCopy == copy.getPlayerOne())
                         ? copy.getPlayerTwo() : copy.getPlayerOne();
                 copy.takeSpaces(curCopy, othCopy, copy.getAvailableMoves(curCopy), dest);
-                sum += expectimax(copy, me, opponent, depth - 1, true);
+                sum += expectimax(copy, me, opponent, depth - 1, true, control);
                 count++;
             }
             return sum / count;
@@ -0,0 +1,494 @@
+package othello.gamelogic.strategy;
+
+import othello.gamelogic.BitBoard;
+
+import java.util.Objects;
+
+/**
+ * Tuning knobs for {@link MCTSStrategy}.
+ * Setters return this config so options can be chained:
+ * <pre>new MCTSConfig().setThreads(8).setTimeBudgetMs(500)</pre>
+ */
+public class MCTSConfig {
+    /**
+     * How worker threads cooperate on one decision.
+     */
+    public enum Parallelism {
+        /** all threads share one tree, spread out by virtual loss */
+        TREE,
+        /** every thread grows its own tree; root visit counts are summed at the end */
+        ROOT,
+        /** one thread grows the tree; each selected leaf gets a batch of playouts run by all threads */
+        LEAF
+    }
+
+    /** Cheap move heuristics used as prior knowledge for new children. */
+    public enum Prior {
+        /** no prior: children are tried in random order */
+        NONE,
+        /** the static square weights of {@link othello.Constants#BOARD_WEIGHTS} */
+        WEIGHTS,
+        /** the mover's mobility after the move relative to the opponent's */
+        MOBILITY
+    }
+
+    /** When a decision may end before its budget is spent. */
+    public enum EarlyStop {
+        /** always spend the whole budget */
+        NONE,
+        /** stop once the most visited root move cannot be overtaken in the remaining budget */
+        SAFE,
+        /** as SAFE, or once the most visited move's win-rate confidence interval lies above all others */
+        CONFIDENCE
+    }
+
+    /** Nodes pre-allocated for timed searches: about 38 MB. */
+    private static final int DEFAULT_NODE_CAPACITY = 1 << 20;
+    /** Upper bound on the legal moves of one Othello position. */
+    private static final int MAX_CHILDREN = 33;
+
+    private Parallelism parallelism = Parallelism.TREE;
+    private int threads = 1;
+    private int iterations = 100;
+    private long timeBudgetMs = 0;
+    private int maxNodes = 0;
+    private int nodeCapacity = 0;
+    private int virtualLoss = 1;
+    private int leafBatch = 8;
+    private int rolloutPlies = 0;
+    private int rolloutEmpties = 0;
+    private double playoutEpsilon = 1;
+    private double exploration = Math.sqrt(2);
+    private long seed = 0;
+    private boolean verbose = false;
+    private boolean rave = false;
+    private double raveEquivalence = 1000;
+    private boolean solver = true;
+    private Prior prior = Prior.NONE;
+    private boolean transpositions = false;
+    private boolean prune = false;
+    private boolean lazyPositions = false;
+    private EarlyStop earlyStop = EarlyStop.NONE;
+    private double stopDelta = 0.01;
+    private boolean ponder = false;
+    private double ponderCpuShare = 0.5;
+    private double priorWeight = 1.0;
+
+    /**
+     * @return how the threads split the work
+     */
+    public Parallelism getParallelism() {
+        return parallelism;
+    }
+
+    public MCTSConfig setParallelism(Parallelism parallelism) {
+        this.parallelism = Objects.requireNonNull(parallelism);
+        return this;
+    }
+
+    /**
+     * @return number of worker threads (in ROOT mode, also the number of trees)
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    public MCTSConfig setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1: " + threads);
+        }
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * @return iterations per decision, summed over all threads (0 = unlimited)
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    public MCTSConfig setIterations(int iterations) {
+        if (iterations < 0) {
+            throw new IllegalArgumentException("iterations must not be negative: " + iterations);
+        }
+        this.iterations = iterations;
+        return this;
+    }
+
+    /**
+     * @return wall-clock budget per decision in milliseconds (0 = no time limit)
+     */
+    public long getTimeBudgetMs() {
+        return timeBudgetMs;
+    }
+
+    public MCTSConfig setTimeBudgetMs(long timeBudgetMs) {
+        if (timeBudgetMs < 0) {
+            throw new IllegalArgumentException("timeBudgetMs must not be negative: " + timeBudgetMs);
+        }
+        this.timeBudgetMs = timeBudgetMs;
+        return this;
+    }
+
+    /**
+     * @return tree size at which a decision stops searching, or prunes the
+     *         tree if {@link #isPrune()} is set (0 = unlimited); also caps
+     *         the node capacity
+     */
+    public int getMaxNodes() {
+        return maxNodes;
+    }
+
+    public MCTSConfig setMaxNodes(int maxNodes) {
+        if (maxNodes < 0) {
+            throw new IllegalArgumentException("maxNodes must not be negative: " + maxNodes);
+        }
+        this.maxNodes = maxNodes;
+        return this;
+    }
+
+    /**
+     * @return nodes pre-allocated for the search tree (0 = sized from the budgets)
+     */
+    public int getNodeCapacity() {
+        return nodeCapacity;
+    }
+
+    public MCTSConfig setNodeCapacity(int nodeCapacity) {
+        if (nodeCapacity < 0) {
+            throw new IllegalArgumentException("nodeCapacity must not be negative: " + nodeCapacity);
+        }
+        this.nodeCapacity = nodeCapacity;
+        return this;
+    }
+
+    /**
+     * Capacity actually allocated when none is configured: enough for the
+     * iteration budget (every iteration expands at most one node's children),
+     * otherwise a default sized for timed searches.
+     */
+    int effectiveNodeCapacity() {
+        if (nodeCapacity > 0) {
+            return nodeCapacity;
+        }
+        if (iterations > 0 && timeBudgetMs == 0) {
+            return (int) Math.min(DEFAULT_NODE_CAPACITY, (long) iterations * MAX_CHILDREN + 1);
+        }
+        return DEFAULT_NODE_CAPACITY;
+    }
+
+    /**
+     * @return playouts per selected leaf in LEAF mode, spread over the threads;
+     *         the iteration budget then counts playouts
+     */
+    public int getLeafBatch() {
+        return leafBatch;
+    }
+
+    public MCTSConfig setLeafBatch(int leafBatch) {
+        if (leafBatch < 1) {
+            throw new IllegalArgumentException("leafBatch must be at least 1: " + leafBatch);
+        }
+        this.leafBatch = leafBatch;
+        return this;
+    }
+
+    /**
+     * @return random moves after which a playout is cut off and scored by
+     *         {@link StaticEvaluator}, 0 = play to the end
+     */
+    public int getRolloutPlies() {
+        return rolloutPlies;
+    }
+
+    public MCTSConfig setRolloutPlies(int rolloutPlies) {
+        if (rolloutPlies < 0) {
+            throw new IllegalArgumentException("rolloutPlies must not be negative: " + rolloutPlies);
+        }
+        this.rolloutPlies = rolloutPlies;
+        return this;
+    }
+
+    /**
+     * @return empty squares at which a playout is cut off and scored by
+     *         {@link StaticEvaluator}, 0 = play to the end
+     */
+    public int getRolloutEmpties() {
+        return rolloutEmpties;
+    }
+
+    public MCTSConfig setRolloutEmpties(int rolloutEmpties) {
+        if (rolloutEmpties < 0 || rolloutEmpties >= BitBoard.SQUARES) {
+            throw new IllegalArgumentException("rolloutEmpties must be in [0, 64): " + rolloutEmpties);
+        }
+        this.rolloutEmpties = rolloutEmpties;
+        return this;
+    }
+
+    /**
+     * @return visits temporarily charged to a node while a thread is searching below it
+     */
+    public int getVirtualLoss() {
+        return virtualLoss;
+    }
+
+    public MCTSConfig setVirtualLoss(int virtualLoss) {
+        if (virtualLoss < 0) {
+            throw new IllegalArgumentException("virtualLoss must not be negative: " + virtualLoss);
+        }
+        this.virtualLoss = virtualLoss;
+        return this;
+    }
+
+    /**
+     * @return chance that a playout move is uniformly random rather than the
+     *         heavy policy's choice (see {@link PlayoutEngine}), in [0, 1];
+     *         1 = plain uniform playouts
+     */
+    public double getPlayoutEpsilon() {
+        return playoutEpsilon;
+    }
+
+    public MCTSConfig setPlayoutEpsilon(double playoutEpsilon) {
+        if (!(playoutEpsilon >= 0 && playoutEpsilon <= 1)) {
+            throw new IllegalArgumentException("playoutEpsilon must be in [0, 1]: " + playoutEpsilon);
+        }
+        this.playoutEpsilon = playoutEpsilon;
+        return this;
+    }
+
+    /**
+     * @return the UCT exploration constant c
+     */
+    public double getExploration() {
+        return exploration;
+    }
+
+    public MCTSConfig setExploration(double exploration) {
+        this.exploration = exploration;
+        return this;
+    }
+
+    /**
+     * @return master seed for the per-worker random streams (0 = seed from the clock)
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    public MCTSConfig setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * @return whether selection blends in RAVE (all-moves-as-first) values;
+     *         RAVE does its own exploring and plays best with a small
+     *         exploration constant (around 0.3)
+     */
+    public boolean isRave() {
+        return rave;
+    }
+
+    public MCTSConfig setRave(boolean rave) {
+        this.rave = rave;
+        return this;
+    }
+
+    /**
+     * @return visits k at which UCT and AMAF values weigh about equally;
+     *         the AMAF weight is sqrt(k / (3 * visits + k))
+     */
+    public double getRaveEquivalence() {
+        return raveEquivalence;
+    }
+
+    public MCTSConfig setRaveEquivalence(double raveEquivalence) {
+        if (raveEquivalence <= 0) {
+            throw new IllegalArgumentException("raveEquivalence must be positive: " + raveEquivalence);
+        }
+        this.raveEquivalence = raveEquivalence;
+        return this;
+    }
+
+    /**
+     * @return whether finished games are scored exactly and proven wins and
+     *         losses are propagated up the tree (MCTS-Solver)
+     */
+    public boolean isSolver() {
+        return solver;
+    }
+
+    public MCTSConfig setSolver(boolean solver) {
+        this.solver = solver;
+        return this;
+    }
+
+    /**
+     * @return the heuristic that orders new children and feeds the
+     *         progressive-bias term of UCT
+     */
+    public Prior getPrior() {
+        return prior;
+    }
+
+    public MCTSConfig setPrior(Prior prior) {
+        this.prior = Objects.requireNonNull(prior);
+        return this;
+    }
+
+    /**
+     * @return weight w of the progressive-bias term w * prior / (visits + 1),
+     *         where the prior lies in [0, 1]
+     */
+    public double getPriorWeight() {
+        return priorWeight;
+    }
+
+    public MCTSConfig setPriorWeight(double priorWeight) {
+        if (priorWeight < 0) {
+            throw new IllegalArgumentException("priorWeight must not be negative: " + priorWeight);
+        }
+        this.priorWeight = priorWeight;
+        return this;
+    }
+
+    /**
+     * @return whether positions reached by different move orders share one
+     *         node, turning the tree into a DAG
+     */
+    public boolean isTranspositions() {
+        return transpositions;
+    }
+
+    public MCTSConfig setTranspositions(boolean transpositions) {
+        this.transpositions = transpositions;
+        return this;
+    }
+
+    /**
+     * @return whether a full tree collapses its least visited subtrees into
+     *         leaves and keeps searching, instead of stopping at the node
+     *         budget or sampling only the existing leaves
+     */
+    public boolean isPrune() {
+        return prune;
+    }
+
+    public MCTSConfig setPrune(boolean prune) {
+        this.prune = prune;
+        return this;
+    }
+
+    /**
+     * @return whether tree nodes store only their move, leaving the search
+     *         to rebuild positions along the selected path; saves 16 of
+     *         about 40 bytes per node
+     */
+    public boolean isLazyPositions() {
+        return lazyPositions;
+    }
+
+    public MCTSConfig setLazyPositions(boolean lazyPositions) {
+        this.lazyPositions = lazyPositions;
+        return this;
+    }
+
+    /**
+     * @return when a tree- or leaf-parallel decision may stop before its
+     *         budget runs out; time saved from a time budget is added to the
+     *         next decision's budget
+     */
+    public EarlyStop getEarlyStop() {
+        return earlyStop;
+    }
+
+    public MCTSConfig setEarlyStop(EarlyStop earlyStop) {
+        this.earlyStop = Objects.requireNonNull(earlyStop);
+        return this;
+    }
+
+    /**
+     * @return error probability of each win-rate confidence interval used by
+     *         {@link EarlyStop#CONFIDENCE}, in (0, 1)
+     */
+    public double getStopDelta() {
+        return stopDelta;
+    }
+
+    public MCTSConfig setStopDelta(double stopDelta) {
+        if (!(stopDelta > 0 && stopDelta < 1)) {
+            throw new IllegalArgumentException("stopDelta must be in (0, 1): " + stopDelta);
+        }
+        this.stopDelta = stopDelta;
+        return this;
+    }
+
+    /**
+     * @return whether the strategy keeps searching in the background while
+     *         the opponent is on move (tree parallelism only); off by
+     *         default, since it takes a share of the cores between decisions
+     */
+    public boolean isPonder() {
+        return ponder;
+    }
+
+    public MCTSConfig setPonder(boolean ponder) {
+        this.ponder = ponder;
+        return this;
+    }
+
+    /**
+     * @return fraction of the machine's cores that pondering may use, in (0, 1];
+     *         shares below one core are met by pausing between iterations
+     */
+    public double getPonderCpuShare() {
+        return ponderCpuShare;
+    }
+
+    public MCTSConfig setPonderCpuShare(double ponderCpuShare) {
+        if (!(ponderCpuShare > 0 && ponderCpuShare <= 1)) {
+            throw new IllegalArgumentException("ponderCpuShare must be in (0, 1]: " + ponderCpuShare);
+        }
+        this.ponderCpuShare = ponderCpuShare;
+        return this;
+    }
+
+    /**
+     * @return whether every decision prints its {@link SearchStats} to standard error
+     */
+    public boolean isVerbose() {
+        return verbose;
+    }
+
+    public MCTSConfig setVerbose(boolean verbose) {
+        this.verbose = verbose;
+        return this;
+    }
+
+    /**
+     * Checks that the search will terminate and the options fit together.
+     * @throws IllegalArgumentException if no iteration, time or node budget is
+     *         set, pruning has only a node budget to stop it, RAVE is
+     *         combined with leaf parallelism, or lazy positions with
+     *         transpositions
+     */
+    void validate() {
+        if (iterations == 0 && timeBudgetMs == 0 && maxNodes == 0) {
+            throw new IllegalArgumentException("MCTS needs an iteration, time or node budget");
+        }
+        if (prune && iterations == 0 && timeBudgetMs == 0) {
+            // a pruned tree never stays full
+            throw new IllegalArgumentException("pruning needs an iteration or time budget");
+        }
+        if (rave && parallelism == Parallelism.LEAF) {
+            // a batch only reports its summed score, not the moves of each playout
+            throw new IllegalArgumentException("RAVE is not supported with leaf parallelism");
+        }
+        if (lazyPositions && transpositions) {
+            // the position table compares the positions of nodes
+            throw new IllegalArgumentException("transpositions need the positions stored in the nodes");
+        }
+    }
+}
@@ -1,228 +1,1291 @@
 package othello.gamelogic.strategy;
 
+import othello.Constants;
+import othello.gamelogic.BitBoard;
 import othello.gamelogic.BoardSpace;
 import othello.gamelogic.OthelloGame;
 import othello.gamelogic.Player;
-import othello.gamelogic.HumanPlayer;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
 
 /**
  * Monte Carlo Tree Search (MCTS) strategy for Othello.
  * Implements Selection, Expansion, Simulation, and Backpropagation.
+ *
+ * The tree lives in a {@link NodeArena}: parallel primitive arrays sized once
+ * to the configured node capacity and reused for every decision. Positions
+ * are stored as bitboards and playouts run on a {@link PlayoutEngine}.
+ *
+ * With more than one thread the search is either tree-parallel (all workers
+ * share one tree, node statistics are plain atomics, and a virtual loss is
+ * charged to every node on a worker's current path so the other workers are
+ * pushed towards different branches) or root-parallel (independent trees
+ * whose root visit counts are summed) or leaf-parallel (one thread selects
+ * and expands, and every selected leaf is evaluated by a batch of playouts
+ * spread over all threads and backed up as one aggregated update).
+ * See {@link MCTSConfig.Parallelism}.
+ *
+ * Playouts can be truncated after a number of plies or at a number of
+ * empty squares; the position reached is then scored by
+ * {@link StaticEvaluator} as a win probability, which is backed up as a
+ * fractional result.
+ *
+ * With RAVE enabled every iteration also updates all-moves-as-first
+ * statistics: a child's AMAF value counts every iteration in which its
+ * move was played by the same player anywhere below the parent, in the tree
+ * or in the playout. Selection blends the AMAF value into the UCT value with
+ * a weight that decays as the child collects real visits.
+ *
+ * With the solver enabled (the default) finished games are scored exactly
+ * rather than sampled, and proven results are propagated up the tree. A
+ * value is stored for the player who moved into the node: a node is a
+ * proven loss once any child is a proven win for the player choosing
+ * there, and otherwise proven once all of its children are, taking the
+ * best of them for that player. Selection skips children that are proven
+ * losses and stops at proven nodes, backing up their exact value instead
+ * of running a playout; the search ends as soon as the root itself is
+ * decided.
+ *
+ * With a prior (see {@link MCTSConfig.Prior}) new children are tried in
+ * order of a cheap move heuristic instead of randomly, and UCT adds a
+ * progressive-bias term w * prior / (visits + 1) that fades as real
+ * statistics accumulate.
+ *
+ * In transposition mode positions reached by different move orders share
+ * one canonical node (see {@link NodeArena#intern}), so the search runs over
+ * a DAG. UCT then takes the win rate from the shared node statistics but the
+ * exploration term from the visits through the edge being scored, which
+ * keeps every parent exploring its own moves.
+ *
+ * While the opponent is on move the strategy can ponder (see
+ * {@link Ponderable}): low-priority background threads grow the tree for the
+ * opponent's position, within the configured CPU share. The next decision
+ * keeps the subtree of the move actually played, compacted to the front of
+ * the arena, and searches on from there. Tree reuse applies to tree and
+ * leaf parallelism, pondering to tree parallelism only.
+ *
+ * A strategy instance searches one decision at a time.
  */
-public class MCTSStrategy implements Strategy {
-    private static final int ITERATIONS = 100;                     // number of MCTS iterations
-    private static final double EXPLORATION_PARAM = Math.sqrt(2);  // UCT exploration constant
+public class MCTSStrategy implements Strategy, Ponderable {
+    private static final int SIZE = OthelloGame.GAME_BOARD_SIZE;
+    private static final int MAX_DEPTH = BitBoard.SQUARES + 2;  // plies, counting passes
 
+    private final MCTSConfig config;
+    private final WorkerPool workers;
+    private NodeArena[] arenas;        // one per tree, created on first search
+    private volatile SearchStats lastStats;
+    private int treeRoot = -1;         // root of the tree left in arenas[0] for reuse, -1 if none
+    private final AtomicInteger prunes = new AtomicInteger();  // prunes in the current decision or ponder
+    private final AtomicLong savedNanos = new AtomicLong();   // budget left by an early stop
+    private long bankedNanos;          // time saved by the last decision, added to the next one
+    private CancellationToken decisionCancel;  // of the current decision
+    private long decisionNodeLimit;    // tree nodes per arena allowed by the current decision, 0 = no limit
+    private ProgressReporter decisionProgress;  // of the current decision
+
+    private ExecutorService ponderPool; // created on first ponder
+    private int ponderThreads;
+    private Future<?> ponderTask;        // the latest ponder, until a decision has waited for it
+    private CancellationToken ponderStop; // stops the latest ponder
+    private volatile SearchStats lastPonderStats;
+
+    /**
+     * Single-threaded search with 100 iterations per move.
+     */
+    public MCTSStrategy() {
+        this(new MCTSConfig());
+    }
+
+    public MCTSStrategy(MCTSConfig config) {
+        config.validate();
+        this.config = config;
+        workers = new WorkerPool("MCTS", Math.max(config.getThreads() - 1, 1));
+    }
+
+    /**
+     * Registers "mcts". Options, each setting the {@link MCTSConfig} property
+     * of the same name unless noted: threads, iterations, timeMs
+     * (timeBudgetMs; without iterations it also lifts the default iteration
+     * budget), maxNodes, capacity (nodeCapacity), parallelism, virtualLoss,
+     * leafBatch, rolloutPlies, rolloutEmpties, epsilon (playoutEpsilon),
+     * c (exploration), seed, rave, raveEquivalence, solver, prior,
+     * priorWeight, tt (transpositions), prune, lazy (lazyPositions),
+     * earlyStop, stopDelta, ponder, ponderShare (ponderCpuShare) and verbose.
+     */
+    public static final class Provider implements StrategyProvider {
+        @Override
+        public String name() {
+            return "mcts";
+        }
+
+        @Override
+        public Strategy create(StrategySpec spec) {
+            MCTSConfig config = new MCTSConfig();
+            if (spec.has("timeMs") && !spec.has("iterations")) {
+                config.setIterations(0);
+            }
+            spec.ifInt("threads", config::setThreads);
+            spec.ifInt("iterations", config::setIterations);
+            spec.ifLong("timeMs", config::setTimeBudgetMs);
+            spec.ifInt("maxNodes", config::setMaxNodes);
+            spec.ifInt("capacity", config::setNodeCapacity);
+            spec.ifEnum("parallelism", MCTSConfig.Parallelism.class, config::setParallelism);
+            spec.ifInt("virtualLoss", config::setVirtualLoss);
+            spec.ifInt("leafBatch", config::setLeafBatch);
+            spec.ifInt("rolloutPlies", config::setRolloutPlies);
+            spec.ifInt("rolloutEmpties", config::setRolloutEmpties);
+            spec.ifDouble("epsilon", config::setPlayoutEpsilon);
+            spec.ifDouble("c", config::setExploration);
+            spec.ifLong("seed", config::setSeed);
+            spec.ifBoolean("rave", config::setRave);
+            spec.ifDouble("raveEquivalence", config::setRaveEquivalence);
+            spec.ifBoolean("solver", config::setSolver);
+            spec.ifEnum("prior", MCTSConfig.Prior.class, config::setPrior);
+            spec.ifDouble("priorWeight", config::setPriorWeight);
+            spec.ifBoolean("tt", config::setTranspositions);
+            spec.ifBoolean("prune", config::setPrune);
+            spec.ifBoolean("lazy", config::setLazyPositions);
+            spec.ifEnum("earlyStop", MCTSConfig.EarlyStop.class, config::setEarlyStop);
+            spec.ifDouble("stopDelta", config::setStopDelta);
+            spec.ifBoolean("ponder", config::setPonder);
+            spec.ifDouble("ponderShare", config::setPonderCpuShare);
+            spec.ifBoolean("verbose", config::setVerbose);
+            spec.checkAllUsed();
+            return new MCTSStrategy(config);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The deadline and node limit (tree nodes, shared out over the trees of
+     * root parallelism) apply on top of the configured budgets; the depth
+     * limit is ignored. Progress is reported from the calling thread's
+     * worker and, with root parallelism, describes the first tree.
+     */
+    @Override
+    public BoardSpace chooseMove(OthelloGame game, Player me, SearchLimits limits, CancellationToken cancel) {
+        stopPondering();
+        awaitPonder();
+        BoardSpace.SpaceType myColor = me.getColor();
+        BoardSpace.SpaceType oppColor = myColor == BoardSpace.SpaceType.BLACK
+                ? BoardSpace.SpaceType.WHITE
+                : BoardSpace.SpaceType.BLACK;
+        long own = BitBoard.fromBoard(game.getBoard(), myColor);
+        long opp = BitBoard.fromBoard(game.getBoard(), oppColor);
+        if (BitBoard.legalMoves(own, opp) == 0) {
+            return null;  // no legal move: the caller passes
+        }
+
+        // allocate the arenas before the clock starts, so a first short decision still searches
+        arenas(config.getParallelism() == MCTSConfig.Parallelism.ROOT ? config.getThreads() : 1);
+        long budgetNanos = config.getTimeBudgetMs() * 1_000_000L;
+        long deadline = Math.min(limits.deadlineOrMax(), budgetNanos > 0
+                ? System.nanoTime() + budgetNanos + bankedNanos
+                : Long.MAX_VALUE);
+        decisionCancel = cancel;
+        decisionNodeLimit = limits.getMaxNodes() == 0 ? 0 : Math.max(1, limits.getMaxNodes() / arenas.length);
+        decisionProgress = new ProgressReporter(limits, game);
+        SplittableRandom master = config.getSeed() != 0
+                ? new SplittableRandom(config.getSeed())
+                : new SplittableRandom();
+
+        long start = System.nanoTime();
+        prunes.set(0);
+        savedNanos.set(0);
+        Outcome outcome = switch (config.getParallelism()) {
+            case TREE -> searchTreeParallel(own, opp, deadline, master);
+            case ROOT -> searchRootParallel(own, opp, deadline, master);
+            case LEAF -> searchLeafParallel(own, opp, deadline, master);
+        };
+        long elapsed = System.nanoTime() - start;
+        int size = 0;
+        int transpositions = 0;
+        int peak = 0;
+        long bytes = 0;
+        for (NodeArena arena : arenas) {
+            size += arena.size();
+            transpositions += arena.transpositions();
+            peak += arena.peakSize();
+            bytes += arena.footprintBytes();
+        }
+        // bank at most one budget, so a run of easy moves cannot starve the position after them
+        bankedNanos = Math.min(savedNanos.get(), budgetNanos);
+        lastStats = new SearchStats(outcome.iterations(), size, transpositions, prunes.get(), peak, bytes,
+                savedNanos.get(), elapsed);
+        if (config.isVerbose()) {
+            System.err.println("MCTS: " + lastStats);
+        }
+
+        // Select a proven win if there is one, else the root move with the highest visit count
+        int[] rootVisits = outcome.rootVisits();
+        int best = outcome.provenWin();
+        for (int sq = 0; outcome.provenWin() < 0 && sq < rootVisits.length; sq++) {
+            if (best < 0 || rootVisits[sq] > rootVisits[best]) {
+                best = sq;
+            }
+        }
+
+        reportProgress(decisionProgress, arenas[0], best);
+        // Return the corresponding space from the original game board
+        return game.getBoard()[best / SIZE][best % SIZE];
+    }
+
+    /**
+     * @return statistics of the most recent decision, or null before the first one
+     */
+    public SearchStats getLastStats() {
+        return lastStats;
+    }
+
+    /**
+     * @return statistics of the most recent finished ponder, or null if there was none
+     */
+    public SearchStats getLastPonderStats() {
+        return lastPonderStats;
+    }
+
+    @Override
+    public void startPondering(OthelloGame game, Player me) {
+        stopPondering();
+        if (!config.isPonder() || config.getParallelism() != MCTSConfig.Parallelism.TREE) {
+            return;
+        }
+        BoardSpace.SpaceType myColor = me.getColor();
+        BoardSpace.SpaceType oppColor = myColor == BoardSpace.SpaceType.BLACK
+                ? BoardSpace.SpaceType.WHITE
+                : BoardSpace.SpaceType.BLACK;
+        // the opponent is on move
+        long own = BitBoard.fromBoard(game.getBoard(), oppColor);
+        long opp = BitBoard.fromBoard(game.getBoard(), myColor);
+        if (BitBoard.legalMoves(own, opp) == 0 && BitBoard.legalMoves(opp, own) == 0) {
+            return;  // game over
+        }
+        ExecutorService pool = ponderPool();
+        // whole cores become threads; a fraction of a core becomes pauses
+        double duty = config.getPonderCpuShare() * Runtime.getRuntime().availableProcessors() / ponderThreads;
+        SplittableRandom master = new SplittableRandom();
+        CancellationToken stop = new CancellationToken();
+        synchronized (this) {
+            // a ponder still winding down owns the arena: the new one waits for it on its own thread
+            Future<?> previous = ponderTask;
+            ponderStop = stop;
+            ponderTask = pool.submit(() -> {
+                await(previous);
+                return ponder(own, opp, Math.min(duty, 1), master, stop);
+            });
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Only signals the ponder threads, so it is safe to call from a UI
+     * thread; the next decision waits for them to wind down.
+     */
+    @Override
+    public synchronized void stopPondering() {
+        if (ponderStop != null) {
+            ponderStop.cancel();
+        }
+    }
+
+    /**
+     * Stops pondering and shuts down the worker and ponder threads.
+     */
     @Override
-    public BoardSpace chooseMove(OthelloGame game, Player me) {
-        // 1. Identify opponent in the real game
-        Player opp = (game.getPlayerOne() == me)
-                ? game.getPlayerTwo()
-                : game.getPlayerOne();
+    public void close() {
+        stopPondering();
+        workers.close();
+        synchronized (this) {
+            if (ponderPool != null) {
+                ponderPool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Waits for the latest ponder to finish, so the decision owns the arena.
+     */
+    private void awaitPonder() {
+        Future<?> task;
+        synchronized (this) {
+            task = ponderTask;
+            ponderTask = null;
+        }
+        await(task);
+    }
+
+    private static void await(Future<?> task) {
+        if (task == null) {
+            return;
+        }
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("MCTS ponder interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("MCTS ponder failed", e.getCause());
+        }
+    }
 
-        // 2. Create a cloned root state for simulations
-        OthelloGame rootState = cloneGame(game, me, opp);
-        Player simMe  = findSimPlayer(rootState, me);
-        Player simOpp = (simMe == rootState.getPlayerOne())
-                ? rootState.getPlayerTwo()
-                : rootState.getPlayerOne();
+    /**
+     * Runs on a ponder thread: re-roots or restarts the tree for the
+     * opponent's position, then searches it with every ponder thread until
+     * stopped or the arena is full.
+     * @return the statistics of this ponder
+     */
+    private SearchStats ponder(long own, long opp, double duty, SplittableRandom master, CancellationToken stop)
+            throws Exception {
+        long start = System.nanoTime();
+        NodeArena arena = arenas(1)[0];
+        reuseRoot(arena, own, opp);
+        prunes.set(0);
+        List<Future<Integer>> helpers = new ArrayList<>();
+        // under the lock of startPondering: helpers queued behind a newer ponder, which waits
+        // for this one, could starve of threads
+        synchronized (this) {
+            for (int t = 1; t < ponderThreads && !stop.isCancelled(); t++) {
+                SplittableRandom rng = master.split();
+                helpers.add(ponderPool.submit(() -> search(arena, new PonderBudget(arena, duty, stop),
+                        Long.MAX_VALUE, rng)));
+            }
+        }
+        long done = search(arena, new PonderBudget(arena, duty, stop), Long.MAX_VALUE, master.split());
+        for (Future<Integer> f : helpers) {
+            done += f.get();
+        }
+        treeRoot = arena.root;
+        lastPonderStats = new SearchStats(done, arena.size(), arena.transpositions(), prunes.get(),
+                arena.peakSize(), arena.footprintBytes(), 0, System.nanoTime() - start);
+        if (config.isVerbose()) {
+            System.err.println("MCTS ponder: " + lastPonderStats);
+        }
+        return lastPonderStats;
+    }
+
+    /**
+     * Iteration budget of a ponder thread: runs until pondering is stopped
+     * or the arena is full (unless it is pruned), and when the thread's share of a core is below
+     * one, parks after every batch of iterations for long enough to keep its
+     * average load at that share.
+     */
+    private final class PonderBudget implements BooleanSupplier {
+        private static final int BATCH = 64;
 
-        // 3. Initialize the root of the MCTS tree (no move led here; it’s me to move)
-        Node root = new Node(null, rootState, simMe, simOpp, simMe);
+        private final NodeArena arena;
+        private final double duty;
+        private final CancellationToken stop;
+        private long batchStart = System.nanoTime();
+        private int count;
+
+        PonderBudget(NodeArena arena, double duty, CancellationToken stop) {
+            this.arena = arena;
+            this.duty = duty;
+            this.stop = stop;
+        }
 
-        // 4. MCTS main loop
-        for (int i = 0; i < ITERATIONS; i++) {
-            // -- Selection
-            Node node = root;
-            while (node.untriedMoves.isEmpty() && !node.children.isEmpty()) {
-                node = selectUCT(node);
+        @Override
+        public boolean getAsBoolean() {
+            if (stop.isCancelled() || (arena.pruneLock == null && arena.isExhausted())) {
+                return false;
             }
-            // -- Expansion
-            if (!node.untriedMoves.isEmpty()) {
-                // pick and remove a random untried move
-                BoardSpace m = node.untriedMoves
-                        .remove(new Random().nextInt(node.untriedMoves.size()));
-                node = node.expand(m);
+            if (duty < 1 && ++count % BATCH == 0) {
+                long busy = System.nanoTime() - batchStart;
+                LockSupport.parkNanos((long) (busy * (1 - duty) / duty));
+                batchStart = System.nanoTime();
+            }
+            return true;
+        }
+    }
+
+    private synchronized ExecutorService ponderPool() {
+        if (ponderPool == null) {
+            int cores = Runtime.getRuntime().availableProcessors();
+            ponderThreads = Math.max(1, (int) Math.ceil(config.getPonderCpuShare() * cores));
+            AtomicInteger count = new AtomicInteger();
+            ponderPool = Executors.newFixedThreadPool(ponderThreads, r -> {
+                Thread t = new Thread(r, "mcts-ponder-" + count.incrementAndGet());
+                t.setDaemon(true);
+                t.setPriority(Thread.MIN_PRIORITY);
+                return t;
+            });
+        }
+        return ponderPool;
+    }
+
+    /**
+     * Result of one search: root visit counts indexed by x * size + y, the
+     * square of a root move proven to win (or -1), plus the work done.
+     */
+    private record Outcome(int[] rootVisits, int provenWin, long iterations) {
+    }
+
+    /**
+     * Tree parallelism: every worker iterates on the same tree and draws from
+     * one shared iteration and node budget.
+     */
+    private Outcome searchTreeParallel(long own, long opp, long deadline, SplittableRandom master) {
+        NodeArena arena = arenas(1)[0];
+        reuseRoot(arena, own, opp);
+        AtomicInteger budget = new AtomicInteger();
+        int iterations = config.getIterations();
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int t = 0; t < config.getThreads(); t++) {
+            SplittableRandom rng = master.split();
+            BooleanSupplier claim = limited(arena, () -> iterations == 0 || budget.getAndIncrement() < iterations);
+            BooleanSupplier stopping = stopEarly(arena, claim, deadline, config.getThreads());
+            BooleanSupplier worker = t == 0 ? reporting(arena, stopping) : stopping;
+            tasks.add(() -> search(arena, worker, deadline, rng));
+        }
+        long done = 0;
+        for (int n : workers.run(tasks)) {
+            done += n;
+        }
+        treeRoot = arena.root;
+        return new Outcome(rootVisits(arena, arena.root), provenWin(arena, arena.root), done);
+    }
+
+    /**
+     * Root parallelism: every worker grows a private tree in its own arena
+     * with its own random stream and share of the iteration and node
+     * budgets, so nothing mutable is shared until the root visit counts are
+     * summed.
+     */
+    private Outcome searchRootParallel(long own, long opp, long deadline, SplittableRandom master) {
+        int trees = config.getThreads();
+        int iterations = config.getIterations();
+        NodeArena[] treeArenas = arenas(trees);
+        treeRoot = -1;
+        List<Callable<Outcome>> tasks = new ArrayList<>();
+        for (int t = 0; t < trees; t++) {
+            SplittableRandom rng = master.split();
+            NodeArena arena = treeArenas[t];
+            // spread the remainder so the trees add up to the configured total
+            int share = iterations / trees + (t < iterations % trees ? 1 : 0);
+            boolean first = t == 0;
+            tasks.add(() -> {
+                newRoot(arena, own, opp);
+                int[] claimed = new int[1];
+                BooleanSupplier claim = limited(arena, () -> iterations == 0 || claimed[0]++ < share);
+                int done = search(arena, first ? reporting(arena, claim) : claim, deadline, rng);
+                return new Outcome(rootVisits(arena, arena.root), provenWin(arena, arena.root), done);
+            });
+        }
+        int[] merged = null;
+        int provenWin = -1;
+        long done = 0;
+        for (Outcome o : workers.run(tasks)) {
+            done += o.iterations();
+            if (provenWin < 0) {
+                provenWin = o.provenWin();
             }
-            // -- Simulation
-            boolean win = simulateRandomPlayout(node, simMe, simOpp);
-            // -- Backpropagation
-            while (node != null) {
-                node.visits++;
-                if (win) {
-                    node.wins++;
+            if (merged == null) {
+                merged = o.rootVisits();
+            } else {
+                // every tree has the same legal moves, so the illegal
+                // Integer.MIN_VALUE squares line up and are left alone
+                for (int sq = 0; sq < merged.length; sq++) {
+                    if (merged[sq] != Integer.MIN_VALUE) {
+                        merged[sq] += o.rootVisits()[sq];
+                    }
                 }
-                node = node.parent;
             }
         }
+        return new Outcome(merged, provenWin, done);
+    }
+
+    /**
+     * Leaf parallelism: the calling thread selects and expands as usual, but
+     * evaluates each leaf with a batch of playouts split over the worker
+     * threads. The iteration budget counts playouts.
+     */
+    private Outcome searchLeafParallel(long own, long opp, long deadline, SplittableRandom master) {
+        NodeArena arena = arenas(1)[0];
+        reuseRoot(arena, own, opp);
+        int iterations = config.getIterations();
+        int batchSize = config.getLeafBatch();
+        LeafBatch batch = new LeafBatch(batchSize, config.getThreads(), master);
+        int[] claimed = new int[1];
+        BooleanSupplier claim = limited(arena, () -> {
+            claimed[0] += batchSize;
+            return iterations == 0 || claimed[0] - batchSize < iterations;
+        });
+        int done = search(arena, reporting(arena, stopEarly(arena, claim, deadline, batchSize)),
+                deadline, master.split(), batch);
+        treeRoot = arena.root;
+        return new Outcome(rootVisits(arena, arena.root), provenWin(arena, arena.root), done);
+    }
 
-        // 5. Select the child with the highest visit count
-        Node bestChild = Collections.max(root.children,
-                Comparator.comparing(c -> c.visits));
-        BoardSpace bestMove = bestChild.move;
+    /**
+     * Adds the current decision's cancellation token and node limit to an
+     * iteration budget, checking them before an iteration is claimed.
+     */
+    private BooleanSupplier limited(NodeArena arena, BooleanSupplier claim) {
+        CancellationToken cancel = decisionCancel;
+        long maxNodes = decisionNodeLimit;
+        return () -> !cancel.isCancelled() && (maxNodes == 0 || arena.size() < maxNodes) && claim.getAsBoolean();
+    }
 
-        // 6. Return the corresponding space from the original game board
-        return game.getBoard()[bestMove.getX()][bestMove.getY()];
+    /**
+     * Adds the current decision's progress reports to the iteration budget
+     * of the worker on the calling thread.
+     */
+    private BooleanSupplier reporting(NodeArena arena, BooleanSupplier budget) {
+        ProgressReporter progress = decisionProgress;
+        return () -> {
+            if (progress.isDue()) {
+                reportProgress(progress, arena, -1);
+            }
+            return budget.getAsBoolean();
+        };
     }
 
     /**
-     * Tree node for MCTS.
+     * Reports the most visited line of a tree, its length as the depth, and
+     * the win rate of a root move, holding off pruning meanwhile.
+     * @param square the root move to report, or -1 for the first move of the line
      */
-    private class Node {
-        Node parent;
-        List<Node> children = new ArrayList<>();
-        double wins = 0;
-        int visits = 0;
+    private void reportProgress(ProgressReporter progress, NodeArena arena, int square) {
+        if (arena.pruneLock != null) {
+            arena.pruneLock.readLock().lock();
+        }
+        try {
+            int root = arena.root;
+            int line = -1;  // root child slot the line starts with
+            int depth = 0;
+            for (int c = mostVisited(arena, root); c >= 0 && depth < MAX_DEPTH;
+                 c = mostVisited(arena, arena.target(c))) {
+                if (depth++ == 0) {
+                    line = c;
+                }
+            }
+            int slot = line;
+            if (square >= 0) {
+                slot = -1;
+                int first = arena.firstChild(root);
+                for (int c = first; first >= 0 && c < first + arena.childCount[root]; c++) {
+                    if (arena.move[c] == square) {
+                        slot = c;
+                    }
+                }
+            }
+            int target = slot < 0 ? -1 : arena.target(slot);
+            double score = target < 0 || arena.visits(target) == 0
+                    ? Double.NaN
+                    : arena.wins(target) / (double) (arena.visits(target) * NodeArena.WIN);
+            long nodes = 0;
+            for (NodeArena a : arenas) {
+                nodes += a.size();
+            }
+            progress.report(depth, nodes, square >= 0 ? square : slot < 0 ? -1 : arena.move[slot], score);
+        } finally {
+            if (arena.pruneLock != null) {
+                arena.pruneLock.readLock().unlock();
+            }
+        }
+    }
 
-        Map<BoardSpace, List<BoardSpace>> moveMap;  // legal moves at this node
-        List<BoardSpace> untriedMoves;               // subset of moveMap.keySet()
+    /**
+     * @return the child slot of a node whose target has the most visits, or -1 if it has no children yet
+     */
+    private static int mostVisited(NodeArena arena, int node) {
+        int first = arena.firstChild(node);
+        if (first < 0) {
+            return -1;  // a leaf, or its children are still being published
+        }
+        int best = -1;
+        for (int c = first; c < first + arena.childCount[node]; c++) {
+            if (best < 0 || arena.visits(arena.target(c)) > arena.visits(arena.target(best))) {
+                best = c;
+            }
+        }
+        return best;
+    }
 
-        BoardSpace move;     // the move that led from parent→this
-        OthelloGame state;   // cloned game state at this node
-        Player toMove;       // which player moves next in this state
-        Player simMe, simOpp;
+    /**
+     * Adds the configured early stopping to a worker's iteration budget.
+     * @param inFlight root visits other workers may add before they notice the stop
+     */
+    private BooleanSupplier stopEarly(NodeArena arena, BooleanSupplier budget, long deadline, int inFlight) {
+        return config.getEarlyStop() == MCTSConfig.EarlyStop.NONE
+                ? budget
+                : new EarlyStop(arena, budget, deadline, inFlight);
+    }
 
-        /**
-         * Constructor for root (move==null).
-         */
-        Node(BoardSpace move,
-             OthelloGame state,
-             Player simMe,
-             Player simOpp,
-             Player toMove) {
-            this.parent       = null;
-            this.move         = move;
-            this.state        = state;
-            this.simMe        = simMe;
-            this.simOpp       = simOpp;
-            this.toMove       = toMove;
-            this.moveMap      = state.getAvailableMoves(toMove);
-            this.untriedMoves = new ArrayList<>(moveMap.keySet());
+    /**
+     * Iteration budget that ends a single-tree search once its outcome is
+     * decided. Progress and the remaining budget are measured in root
+     * visits: what is left of the iteration budget, and the visits the
+     * current rate would add before the deadline. The search is decided
+     * when the most visited root move, which chooseMove would play, leads
+     * the runner-up by more than the remaining visits, or, with
+     * {@link MCTSConfig.EarlyStop#CONFIDENCE}, when its win rate is
+     * separated from every other move's by Hoeffding intervals.
+     */
+    private final class EarlyStop implements BooleanSupplier {
+        private static final int CHECK = 64;
+
+        private final NodeArena arena;
+        private final BooleanSupplier budget;
+        private final long deadline;
+        private final int inFlight;
+        private final long start = System.nanoTime();
+        private final int startVisits;
+        private final double radius;  // Hoeffding radius times sqrt(visits)
+        private int count;
+        private boolean stopped;
+
+        EarlyStop(NodeArena arena, BooleanSupplier budget, long deadline, int inFlight) {
+            this.arena = arena;
+            this.budget = budget;
+            this.deadline = deadline;
+            this.inFlight = inFlight;
+            startVisits = arena.visits(arena.root);
+            radius = Math.sqrt(Math.log(2 / config.getStopDelta()) / 2);
+        }
+
+        @Override
+        public boolean getAsBoolean() {
+            if (stopped || (++count % CHECK == 0 && decided())) {
+                stopped = true;
+                return false;
+            }
+            return budget.getAsBoolean();
+        }
+
+        private boolean decided() {
+            int root = arena.root;
+            int first = arena.firstChild(root);
+            if (first < 0) {
+                return false;
+            }
+            int best = -1;
+            int bestVisits = -1;
+            int secondVisits = -1;
+            for (int c = first; c < first + arena.childCount[root]; c++) {
+                int t = arena.target(c);
+                int v = arena.visits(t);
+                if (arena.proven[t] == NodeArena.PROVEN_LOSS) {
+                    continue;  // never chosen
+                }
+                if (v > bestVisits) {
+                    secondVisits = bestVisits;
+                    bestVisits = v;
+                    best = t;
+                } else if (v > secondVisits) {
+                    secondVisits = v;
+                }
+            }
+            long now = System.nanoTime();
+            long progress = arena.visits(root) - startVisits;
+            if (progress <= 0) {
+                return false;
+            }
+            long remaining = Long.MAX_VALUE;
+            if (config.getIterations() > 0) {
+                remaining = config.getIterations() - progress;
+            }
+            if (deadline != Long.MAX_VALUE) {
+                remaining = Math.min(remaining, progress * (deadline - now) / Math.max(now - start, 1));
+            }
+            remaining += inFlight;
+            boolean done = best >= 0 && (secondVisits < 0 || bestVisits - secondVisits > remaining);
+            if (!done && config.getEarlyStop() == MCTSConfig.EarlyStop.CONFIDENCE) {
+                done = separated(first, root, best);
+            }
+            if (done) {
+                long left = deadline != Long.MAX_VALUE
+                        ? deadline - now
+                        : remaining * (now - start) / progress;
+                savedNanos.accumulateAndGet(Math.max(left, 0), Math::max);
+            }
+            return done;
         }
 
         /**
-         * Constructor for child nodes.
+         * @return whether the lower confidence bound of node best's win rate
+         *         lies above the upper bound of every other root move's
          */
-        Node(Node parent,
-             BoardSpace move,
-             OthelloGame state,
-             Player simMe,
-             Player simOpp,
-             Player toMove) {
-            this(move, state, simMe, simOpp, toMove);
-            this.parent = parent;
+        private boolean separated(int first, int root, int best) {
+            if (best < 0 || arena.visits(best) == 0) {
+                return false;
+            }
+            double lower = winRate(best) - radius / Math.sqrt(arena.visits(best));
+            for (int c = first; c < first + arena.childCount[root]; c++) {
+                int t = arena.target(c);
+                if (t == best || arena.proven[t] == NodeArena.PROVEN_LOSS) {
+                    continue;
+                }
+                if (arena.visits(t) == 0 || winRate(t) + radius / Math.sqrt(arena.visits(t)) >= lower) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private double winRate(int node) {
+            return arena.wins(node) / (double) (arena.visits(node) * NodeArena.WIN);
+        }
+    }
+
+    /**
+     * The playouts of one leaf in LEAF mode, cut into one chunk per thread.
+     * Each chunk has its own engine, so chunks run concurrently without
+     * sharing a random stream.
+     */
+    private final class LeafBatch {
+        final int size;
+        private final List<Callable<Long>> chunks = new ArrayList<>();
+        private long own;
+        private long opp;
+
+        LeafBatch(int size, int threads, SplittableRandom master) {
+            this.size = size;
+            for (int t = 0; t < Math.min(threads, size); t++) {
+                PlayoutEngine engine = new PlayoutEngine(master.split(), config.getPlayoutEpsilon());
+                int playouts = size / threads + (t < size % threads ? 1 : 0);
+                chunks.add(() -> {
+                    long score = 0;
+                    for (int i = 0; i < playouts; i++) {
+                        score += playout(engine, own, opp);
+                    }
+                    return score;
+                });
+            }
         }
 
         /**
-         * Expand by applying the given move, creating a child node.
+         * @return the summed score of the batch in WIN units for the side to move
          */
-        Node expand(BoardSpace move) {
-            // 1) Clone this node’s state
-            OthelloGame nextState = cloneGame(this.state, simMe, simOpp);
-            // 2) Determine the opponent in the child state
-            Player other = (toMove == nextState.getPlayerOne())
-                    ? nextState.getPlayerTwo()
-                    : nextState.getPlayerOne();
-            // 3) Apply the move
-            nextState.takeSpaces(toMove, other, this.moveMap, move);
-            // 4) Child is now other’s turn
-            Node child = new Node(this, move, nextState, simMe, simOpp, other);
-            this.children.add(child);
-            return child;
+        long evaluate(long own, long opp) {
+            // read by the chunks; handing them to the pool publishes the fields
+            this.own = own;
+            this.opp = opp;
+            long score = 0;
+            for (long chunk : workers.run(chunks)) {
+                score += chunk;
+            }
+            return score;
         }
     }
 
     /**
-     * UCT selection: pick the child maximizing
-     *    (wins/visits) + c * sqrt( ln(parent.visits) / visits )
+     * Returns the arenas for this decision, allocating them on first use.
+     * A node budget (maxNodes) caps every tree's share of the capacity.
+     */
+    private NodeArena[] arenas(int count) {
+        if (arenas == null || arenas.length != count) {
+            int capacity = config.getMaxNodes() > 0
+                    ? config.getMaxNodes() / count
+                    : config.effectiveNodeCapacity() / count;
+            arenas = new NodeArena[count];
+            treeRoot = -1;
+            for (int i = 0; i < count; i++) {
+                arenas[i] = new NodeArena(Math.max(capacity, 1), config);
+            }
+        }
+        return arenas;
+    }
+
+    /**
+     * Starts the tree for a position. If the position is a root child of the
+     * tree left by the previous search or ponder, that child's subtree is
+     * kept and compacted; otherwise the arena starts over.
+     * @return the root node
+     */
+    private int reuseRoot(NodeArena arena, long own, long opp) {
+        if (treeRoot >= 0) {
+            int first = arena.firstChild(treeRoot);
+            for (int c = Math.max(first, 0); c < first + arena.childCount[treeRoot]; c++) {
+                int m = arena.move[c];
+                long flipped = m == BitBoard.PASS ? 0 : BitBoard.flips(arena.rootOwn, arena.rootOpp, m);
+                long placed = m == BitBoard.PASS ? 0 : 1L << m;
+                // the child is seen from the opponent, who moves next
+                if ((arena.rootOpp & ~flipped) == own && (arena.rootOwn | flipped | placed) == opp) {
+                    treeRoot = -1;
+                    arena.rootOwn = own;
+                    arena.rootOpp = opp;
+                    return arena.compact(arena.target(c));
+                }
+            }
+            treeRoot = -1;
+        }
+        return newRoot(arena, own, opp);
+    }
+
+    private static int newRoot(NodeArena arena, long own, long opp) {
+        arena.reset();
+        // no move led here; it’s me to move
+        arena.root = arena.newNode(BitBoard.PASS, own, opp);
+        arena.rootOwn = own;
+        arena.rootOpp = opp;
+        return arena.root;
+    }
+
+    /**
+     * Collects the visit count of each root move. Every legal move gets at
+     * least -1 so that it still beats the non-moves (Integer.MIN_VALUE) when
+     * the budget ran out before the root was expanded; moves proven to lose
+     * are reported as -1 as well.
+     */
+    private static int[] rootVisits(NodeArena arena, int root) {
+        int[] visits = new int[BitBoard.SQUARES];
+        Arrays.fill(visits, Integer.MIN_VALUE);
+        for (long m = BitBoard.legalMoves(arena.rootOwn, arena.rootOpp); m != 0; m &= m - 1) {
+            visits[Long.numberOfTrailingZeros(m)] = -1;
+        }
+        int first = arena.firstChild(root);
+        if (first >= 0) {
+            for (int c = first; c < first + arena.childCount[root]; c++) {
+                int t = arena.target(c);
+                visits[arena.move[c]] = arena.proven[t] == NodeArena.PROVEN_LOSS ? -1 : arena.visits(t);
+            }
+        }
+        return visits;
+    }
+
+    /**
+     * @return the square of a root move proven to win, or -1 if there is none
+     */
+    private static int provenWin(NodeArena arena, int root) {
+        int first = arena.firstChild(root);
+        if (first >= 0) {
+            for (int c = first; c < first + arena.childCount[root]; c++) {
+                if (arena.proven[arena.target(c)] == NodeArena.PROVEN_WIN && arena.move[c] != BitBoard.PASS) {
+                    return arena.move[c];
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * One worker's share of the search: iterate until the iteration budget
+     * is used up, the node budget is exhausted or the deadline passes.
+     * Each iteration runs to completion, so stopping always leaves
+     * consistent statistics for the best-so-far root child.
+     * Once a full arena can take no more nodes without a node budget,
+     * iterations keep sampling from the existing leaves. With pruning on,
+     * the worker that finds the arena full after an iteration prunes it
+     * while the others wait, and every worker carries on from the new root.
+     * @param budget claims one iteration, returning false once none are left
+     * @param rng this worker's private random stream
+     * @return the number of iterations this worker completed
+     */
+    private int search(NodeArena arena, BooleanSupplier budget,
+                       long deadline, SplittableRandom rng) {
+        return search(arena, budget, deadline, rng, null);
+    }
+
+    /**
+     * @param batch evaluates each leaf with a batch of playouts, or null for a single playout
+     * @return the number of playouts (or exact evaluations) backed up
+     */
+    private int search(NodeArena arena, BooleanSupplier budget,
+                       long deadline, SplittableRandom rng, LeafBatch batch) {
+        int virtualLoss = config.getVirtualLoss();
+        ReentrantReadWriteLock pruneLock = arena.pruneLock;
+        boolean stopWhenFull = config.getMaxNodes() > 0 && pruneLock == null;
+        boolean rave = config.isRave();
+        boolean solver = config.isSolver();
+        PlayoutEngine engine = new PlayoutEngine(rng, config.getPlayoutEpsilon());
+        boolean transpositions = arena.link != null;
+        boolean lazy = arena.own == null;
+        int[] path = new int[MAX_DEPTH + 1];   // nodes holding the statistics
+        int[] edges = new int[MAX_DEPTH + 1];  // child slots taken to reach them
+        int done = 0;
+        while (!(stopWhenFull && arena.isExhausted())
+                && budget.getAsBoolean() && System.nanoTime() < deadline) {
+            if (pruneLock != null) {
+                pruneLock.readLock().lock();
+            }
+            try {
+                int root = arena.root;
+                if (solver && arena.proven[root] != NodeArena.UNPROVEN) {
+                    break;
+                }
+                // -- Selection (charging virtual loss on the way down)
+                int depth = 0;
+                int node = root;
+                long own = arena.rootOwn;  // position at node, for the side to move
+                long opp = arena.rootOpp;
+                arena.addVirtualLoss(node, virtualLoss);
+                edges[depth] = node;
+                path[depth++] = node;
+                boolean expanded = false;
+                while (!expanded) {
+                    if (solver && node != root && arena.proven[node] != NodeArena.UNPROVEN) {
+                        break;  // decided: back up the exact value
+                    }
+                    int first = arena.firstChild(node);
+                    if (first == NodeArena.UNEXPANDED) {
+                        // -- Expansion: create the leaf's children, then play out from one of them
+                        first = expand(arena, node, own, opp, rng);
+                        if (first < 0) {
+                            break;  // arena full or expanded elsewhere: play out from the leaf
+                        }
+                        expanded = true;
+                    } else if (first == NodeArena.EXPANDING) {
+                        break;  // another worker is expanding it: play out from here
+                    }
+                    if (arena.childCount[node] == 0) {
+                        break;  // game over at this node
+                    }
+                    int edge = selectUCT(arena, node, first);
+                    node = arena.target(edge);
+                    if (!lazy) {
+                        own = arena.own[node];
+                        opp = arena.opp[node];
+                    } else {
+                        // replay the move; the child is seen from the opponent
+                        int m = arena.move[edge];
+                        long flipped = m == BitBoard.PASS ? 0 : BitBoard.flips(own, opp, m);
+                        long mover = own | flipped | (m == BitBoard.PASS ? 0 : 1L << m);
+                        own = opp & ~flipped;
+                        opp = mover;
+                    }
+                    arena.addVirtualLoss(node, virtualLoss);
+                    edges[depth] = edge;
+                    path[depth++] = node;
+                }
+                long toMoveScore;
+                int count = 1;          // playouts behind toMoveScore
+                long toMovePlayed = 0;  // squares played after the current level by its side to move
+                long otherPlayed = 0;   // ... and by the other side
+                byte leafValue = solver ? arena.proven[node] : NodeArena.UNPROVEN;
+                if (leafValue != NodeArena.UNPROVEN) {
+                    // -- Exact value: no playout needed
+                    toMoveScore = NodeArena.WIN - moverScore(leafValue);
+                    prove(arena, path, depth);
+                } else if (batch != null) {
+                    // -- Simulation: a batch of playouts on all threads
+                    toMoveScore = batch.evaluate(own, opp);
+                    count = batch.size;
+                } else {
+                    // -- Simulation: result for the side to move at the leaf
+                    toMoveScore = playout(engine, own, opp);
+                    toMovePlayed = engine.getMovesByFirst();
+                    otherPlayed = engine.getMovesBySecond();
+                }
+                // -- Backpropagation (and release of the virtual loss);
+                //    the perspective flips at every level
+                for (int i = depth - 1; i >= 0; i--) {
+                    int n = path[i];
+                    if (rave) {
+                        if (i < depth - 1 && arena.move[edges[i + 1]] != BitBoard.PASS) {
+                            toMovePlayed |= 1L << arena.move[edges[i + 1]];
+                        }
+                        updateAmaf(arena, n, toMovePlayed, toMoveScore);
+                        long tmp = toMovePlayed;
+                        toMovePlayed = otherPlayed;
+                        otherPlayed = tmp;
+                    }
+                    arena.addVirtualLoss(n, -virtualLoss);
+                    arena.update(n, count * NodeArena.WIN - toMoveScore, count);
+                    if (transpositions && i > 0) {
+                        arena.addEdgeVisits(edges[i], count);
+                    }
+                    toMoveScore = count * NodeArena.WIN - toMoveScore;
+                }
+                done += count;
+            } finally {
+                if (pruneLock != null) {
+                    pruneLock.readLock().unlock();
+                }
+            }
+            if (pruneLock != null && arena.isExhausted()) {
+                prune(arena);
+            }
+        }
+        return done;
+    }
+
+    /**
+     * Prunes a full arena once no iteration is inside it, unless another
+     * worker got there first.
+     */
+    private void prune(NodeArena arena) {
+        arena.pruneLock.writeLock().lock();
+        try {
+            if (arena.isExhausted()) {
+                arena.prune();
+                prunes.incrementAndGet();
+            }
+        } finally {
+            arena.pruneLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs one playout, truncated if so configured.
+     * @return the result in WIN units for the side to move: 0, WIN / 2 or
+     *         WIN for a finished game, the evaluator's win probability for a
+     *         truncated one
      */
-    private Node selectUCT(Node node) {
-        double logParentVisits = Math.log(node.visits);
-        return Collections.max(node.children, Comparator.comparing(c ->
-                (c.wins / c.visits)
-                        + EXPLORATION_PARAM * Math.sqrt(logParentVisits / c.visits)
-        ));
+    private long playout(PlayoutEngine engine, long own, long opp) {
+        int diff = engine.playout(own, opp, config.getRolloutPlies(), config.getRolloutEmpties());
+        if (diff == PlayoutEngine.CUT_OFF) {
+            return Math.round(NodeArena.WIN
+                    * StaticEvaluator.winProbability(engine.getCutoffOwn(), engine.getCutoffOpp()));
+        }
+        return diff > 0 ? NodeArena.WIN : diff == 0 ? NodeArena.WIN / 2 : 0;
     }
 
     /**
-     * Simulate a random playout from the given node.
-     * Returns true if simMe wins.
+     * @return the score in WIN units of a proven value
      */
-    private boolean simulateRandomPlayout(Node node, Player simMe, Player simOpp) {
-        // 1) Deep‐clone the state to avoid polluting the tree
-        OthelloGame sim = cloneGame(node.state, simMe, simOpp);
-        Player current = node.toMove;
+    private static long moverScore(byte value) {
+        return switch (value) {
+            case NodeArena.PROVEN_WIN -> NodeArena.WIN;
+            case NodeArena.PROVEN_DRAW -> NodeArena.WIN / 2;
+            default -> 0;
+        };
+    }
 
-        // 2) Play random moves until neither can move
-        while (true) {
-            Map<BoardSpace, List<BoardSpace>> avail = sim.getAvailableMoves(current);
-            if (avail.isEmpty()) {
-                // skip turn
-                current = (current == simMe) ? simOpp : simMe;
-                avail = sim.getAvailableMoves(current);
-                if (avail.isEmpty()) break;  // game over
+    /**
+     * Propagates a proven leaf value towards the root, stopping at the first
+     * ancestor that cannot be decided yet. Workers may race to prove the same
+     * node, but they always compute the same value from the same children.
+     */
+    private static void prove(NodeArena arena, int[] path, int depth) {
+        for (int i = depth - 2; i >= 0; i--) {
+            int node = path[i];
+            if (arena.proven[node] != NodeArena.UNPROVEN) {
+                continue;  // already decided by another worker
+            }
+            int first = arena.firstChild(node);
+            if (first < 0) {
+                return;
+            }
+            // values of the children are for this node's side to move
+            byte best = NodeArena.UNPROVEN;
+            boolean allProven = true;
+            for (int c = first; c < first + arena.childCount[node]; c++) {
+                byte value = arena.proven[arena.target(c)];
+                if (value == NodeArena.UNPROVEN) {
+                    allProven = false;
+                } else if (value > best) {
+                    best = value;
+                }
             }
-            // pick a random legal move
-            List<BoardSpace> choices = new ArrayList<>(avail.keySet());
-            BoardSpace move = choices.get(new Random().nextInt(choices.size()));
-            Player other = (current == sim.getPlayerOne())
-                    ? sim.getPlayerTwo()
-                    : sim.getPlayerOne();
-            sim.takeSpaces(current, other, avail, move);
-            current = other;
+            if (best != NodeArena.PROVEN_WIN && !allProven) {
+                return;
+            }
+            arena.proven[node] = NodeArena.negate(best);
         }
+    }
 
-        // 3) Count final discs on the board
-        int meCount = 0, oppCount = 0;
-        BoardSpace.SpaceType meColor  = simMe.getColor();
-        BoardSpace.SpaceType oppColor = simOpp.getColor();
-        for (BoardSpace[] row : sim.getBoard()) {
-            for (BoardSpace s : row) {
-                if (s.getType() == meColor)  meCount++;
-                else if (s.getType() == oppColor) oppCount++;
+    /**
+     * Credits the AMAF statistics of every child of a node whose move the
+     * node's side to move played later in the iteration.
+     * @param played squares played by the side to move at the node, from the
+     *               node's move down to the end of the playout
+     * @param toMoveScore the iteration's result for that side
+     */
+    private static void updateAmaf(NodeArena arena, int node, long played, long toMoveScore) {
+        int first = arena.firstChild(node);
+        if (first < 0) {
+            return;
+        }
+        for (int c = first; c < first + arena.childCount[node]; c++) {
+            int m = arena.move[c];
+            if (m != BitBoard.PASS && (played & (1L << m)) != 0) {
+                arena.updateAmaf(c, toMoveScore);
             }
         }
-        return meCount > oppCount;
     }
 
     /**
-     * Deep‐copies a game state: clones the board and sets up two new players
-     * with the same colors. Does not preserve playerOwnedSpaces lists, but
-     * simulation relies on board scans for results.
+     * Creates all children of a leaf in one block, in random order so that
+     * ties between unvisited children are broken randomly. A side without
+     * moves gets a single pass child unless the game is over.
+     * With the solver, a finished game is also given its proven value.
+     * With a prior the children are then ordered best-first, keeping the
+     * random order among equal priors.
+     * @param own discs of the side to move at the node
+     * @param opp discs of the other side
+     * @return the first child index (0 for a finished game, whose child
+     *         count is 0), or -1 if the arena is full or another worker is
+     *         expanding the node
      */
-    private OthelloGame cloneGame(OthelloGame orig, Player me, Player opp) {
-        // clone the board array
-        BoardSpace[][] origBoard = orig.getBoard();
-        int size = origBoard.length;
-        BoardSpace[][] copy = new BoardSpace[size][size];
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                BoardSpace s = origBoard[i][j];
-                copy[i][j] = new BoardSpace(i, j, s.getType());
+    private int expand(NodeArena arena, int node, long own, long opp, SplittableRandom rng) {
+        if (!arena.claim(node)) {
+            int first = arena.firstChild(node);
+            return first == NodeArena.EXPANDING ? -1 : first;
+        }
+        long moves = BitBoard.legalMoves(own, opp);
+        int count = Long.bitCount(moves);
+        if (count == 0) {
+            if (BitBoard.legalMoves(opp, own) == 0) {
+                if (config.isSolver()) {
+                    int diff = Long.bitCount(own) - Long.bitCount(opp);
+                    // seen from the player who moved into the node, not the one to move
+                    arena.proven[node] = diff > 0 ? NodeArena.PROVEN_LOSS
+                            : diff < 0 ? NodeArena.PROVEN_WIN : NodeArena.PROVEN_DRAW;
+                }
+                arena.publishChildren(node, 0, 0);  // terminal
+                return 0;
+            }
+            int first = arena.allocate(1);
+            if (first < 0) {
+                arena.unclaim(node);
+                return -1;
+            }
+            arena.init(first, BitBoard.PASS, opp, own);
+            if (arena.prior != null) {
+                arena.prior[first] = 0.5f;
+            }
+            if (arena.link != null) {
+                arena.intern(first);
+            }
+            arena.publishChildren(node, first, 1);
+            return first;
+        }
+        int first = arena.allocate(count);
+        if (first < 0) {
+            arena.unclaim(node);
+            return -1;
+        }
+        for (int i = 0; moves != 0; i++, moves &= moves - 1) {
+            int sq = Long.numberOfTrailingZeros(moves);
+            long flipped = BitBoard.flips(own, opp, sq);
+            // the child is seen from the opponent, who moves next
+            long childOwn = opp & ~flipped;
+            long childOpp = own | flipped | (1L << sq);
+            arena.init(first + i, sq, childOwn, childOpp);
+            if (arena.prior != null) {
+                arena.prior[first + i] = prior(sq, childOwn, childOpp);
+            }
+        }
+        // shuffle the block so unvisited children are tried in random order
+        for (int i = count - 1; i > 0; i--) {
+            swap(arena, first + i, first + rng.nextInt(i + 1));
+        }
+        if (arena.prior != null) {
+            // stable insertion sort, highest prior first
+            for (int i = first + 1; i < first + count; i++) {
+                for (int j = i; j > first && arena.prior[j] > arena.prior[j - 1]; j--) {
+                    swap(arena, j, j - 1);
+                }
+            }
+        }
+        if (arena.link != null) {
+            // after the reordering, which would move registered nodes
+            for (int c = first; c < first + count; c++) {
+                arena.intern(c);
             }
         }
-        // create new player instances with same colors
-        Player simMe  = new HumanPlayer();
-        simMe.setColor(me.getColor());
-        Player simOpp = new HumanPlayer();
-        simOpp.setColor(opp.getColor());
-        // build a fresh game and inject the cloned board
-        OthelloGame simGame = new OthelloGame(simMe, simOpp);
-        simGame.setBoard(copy);
-        return simGame;
+        arena.publishChildren(node, first, count);
+        return first;
+    }
+
+    private static void swap(NodeArena arena, int a, int b) {
+        byte m = arena.move[a];
+        arena.move[a] = arena.move[b];
+        arena.move[b] = m;
+        if (arena.own != null) {
+            long o = arena.own[a];
+            arena.own[a] = arena.own[b];
+            arena.own[b] = o;
+            o = arena.opp[a];
+            arena.opp[a] = arena.opp[b];
+            arena.opp[b] = o;
+        }
+        if (arena.prior != null) {
+            float p = arena.prior[a];
+            arena.prior[a] = arena.prior[b];
+            arena.prior[b] = p;
+        }
+    }
+
+    /**
+     * Scores the move into a new child for the player who made it.
+     * @param sq the square played
+     * @param own discs of the side to move in the child, the opponent of the mover
+     * @param opp discs of the mover
+     * @return a heuristic value in [0, 1], higher is better
+     */
+    private float prior(int sq, long own, long opp) {
+        return switch (config.getPrior()) {
+            // square weights run from -100 to 200
+            case WEIGHTS -> (Constants.BOARD_WEIGHTS[sq / SIZE][sq % SIZE] + 100) / 300f;
+            case MOBILITY -> {
+                int mine = Long.bitCount(BitBoard.legalMoves(opp, own));
+                int theirs = Long.bitCount(BitBoard.legalMoves(own, opp));
+                yield (mine + 1f) / (mine + theirs + 2f);
+            }
+            case NONE -> 0.5f;
+        };
     }
 
     /**
-     * Given an original Player from the real game, finds the matching
-     * Player instance in the cloned game state.
+     * UCT selection: pick the child maximizing
+     *    (wins/visits) + c * sqrt( ln(parent.visits) / visits )
+     * where in-flight virtual losses count as visits without wins.
+     * Unvisited children are taken first, in block order.
+     *
+     * With RAVE the win rate is replaced by
+     *    (1 - beta) * (wins/visits) + beta * (amafWins/amafVisits),
+     *    beta = sqrt( k / (3 * visits + k) )
+     * for the equivalence parameter k, so an unvisited child is valued by its
+     * AMAF statistics alone and is only taken at once if it has none yet.
+     *
+     * With the solver a child proven to win is taken at once and children
+     * proven to lose are skipped. With a prior the progressive-bias term
+     * w * prior / (visits + 1) is added to every child's value.
+     *
+     * With transpositions the win rate comes from the child's canonical node
+     * while the visits in the exploration and bias terms, and the check for
+     * untried children, count only this edge.
      */
-    private Player findSimPlayer(OthelloGame state, Player orig) {
-        if (state.getPlayerOne().getColor() == orig.getColor()) {
-            return state.getPlayerOne();
-        } else {
-            return state.getPlayerTwo();
+    private int selectUCT(NodeArena arena, int node, int first) {
+        int end = first + arena.childCount[node];
+        double logParentVisits = Math.log(Math.max(1, arena.visits(node) + arena.virtualLoss(node)));
+        int best = first;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        boolean rave = arena.amafVisits != null;
+        boolean solver = config.isSolver();
+        double k = config.getRaveEquivalence();
+        float[] prior = arena.prior;
+        double priorWeight = config.getPriorWeight();
+        boolean transpositions = arena.link != null;
+        for (int c = first; c < end; c++) {
+            int t = arena.target(c);
+            if (solver) {
+                byte value = arena.proven[t];
+                if (value == NodeArena.PROVEN_WIN) {
+                    return c;
+                } else if (value == NodeArena.PROVEN_LOSS) {
+                    continue;
+                }
+            }
+            int n = arena.visits(t) + arena.virtualLoss(t);
+            int edgeN = transpositions ? arena.edgeVisits(c) + arena.virtualLoss(t) : n;
+            int amafN = rave ? arena.amafVisits(c) : 0;
+            if (edgeN == 0 && amafN == 0) {
+                return c;
+            }
+            double winRate = n > 0 ? (double) arena.wins(t) / NodeArena.WIN / n : 0;
+            if (amafN > 0) {
+                double beta = Math.sqrt(k / (3.0 * edgeN + k));
+                double amafRate = (double) arena.amafWins(c) / NodeArena.WIN / amafN;
+                winRate = (1 - beta) * winRate + beta * amafRate;
+            }
+            double value = winRate
+                    + config.getExploration() * Math.sqrt(logParentVisits / Math.max(edgeN, 1));
+            if (prior != null) {
+                value += priorWeight * prior[c] / (edgeN + 1);
+            }
+            if (value > bestValue) {
+                bestValue = value;
+                best = c;
+            }
         }
+        return best;
     }
 }
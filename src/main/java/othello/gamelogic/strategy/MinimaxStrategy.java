@@ -7,12 +7,65 @@ import java.util.Map;
 
 /**
  * Strategy that uses Minimax with a fixed depth and positional weights.
+ * A search stopped by its {@link SearchLimits} or cancellation plays the best
+ * root move whose subtree was searched completely.
  */
 public class MinimaxStrategy implements Strategy {
     private static final int MAX_DEPTH = 2;
 
+    private final int depth;
+    private PositionCache cache;  // null = none
+
+    /**
+     * Searches {@value #MAX_DEPTH} plies deep.
+     */
+    public MinimaxStrategy() {
+        this(MAX_DEPTH);
+    }
+
+    /**
+     * @param depth plies to search when the limits of a decision set no depth
+     */
+    public MinimaxStrategy(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("depth must be at least 1: " + depth);
+        }
+        this.depth = depth;
+    }
+
+    /**
+     * Reads the root of every decision through a persistent cache, and
+     * writes back the result of every search that was not stopped early.
+     * @param cache the cache, or null for none
+     */
+    public void setPositionCache(PositionCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Registers "minimax", with options depth (plies), cache (a
+     * {@link PositionCache} file, shared by the strategies of this process)
+     * and cacheMB (its size cap when first opened, 64 by default).
+     */
+    public static final class Provider implements StrategyProvider {
+        @Override
+        public String name() {
+            return "minimax";
+        }
+
+        @Override
+        public Strategy create(StrategySpec spec) {
+            MinimaxStrategy strategy = new MinimaxStrategy(spec.getInt("depth", MAX_DEPTH));
+            strategy.setPositionCache(PositionCache.fromSpec(spec));
+            spec.checkAllUsed();
+            return strategy;
+        }
+    }
+
     @Override
-    public BoardSpace chooseMove(OthelloGame game, Player me) {
+    public BoardSpace chooseMove(OthelloGame game, Player me, SearchLimits limits, CancellationToken cancel) {
+        SearchControl control = new SearchControl(limits, cancel);
+        ProgressReporter progress = new ProgressReporter(limits, game);
         Player opponent = (game.getPlayerOne() == me)
                 ? game.getPlayerTwo()
                 : game.getPlayerOne();
@@ -22,6 +75,22 @@ public class MinimaxStrategy implements Strategy {
             return null;
         }
 
+        // a position already searched at least as deep in this or an earlier session
+        long key = 0;
+        int cacheDepth = Math.min(control.depth(depth), PositionCache.MAX_DEPTH);
+        if (cache != null) {
+            long own = BitBoard.fromBoard(game.getBoard(), me.getColor());
+            long opp = BitBoard.fromBoard(game.getBoard(), opponent.getColor());
+            key = PositionCache.key(own, opp, "minimax");
+            PositionCache.Entry hit = cache.probeRoot(key, cacheDepth, BitBoard.legalMoves(own, opp));
+            if (hit != null) {
+                BoardSpace move = game.getBoard()[hit.move() / OthelloGame.GAME_BOARD_SIZE]
+                        [hit.move() % OthelloGame.GAME_BOARD_SIZE];
+                progress.report(hit.depth(), 0, move, hit.score());
+                return move;
+            }
+        }
+
         BoardSpace bestMove = null;
         int bestScore = Integer.MIN_VALUE;
         for (BoardSpace dest : moves.keySet()) {
@@ -34,17 +103,36 @@ public class MinimaxStrategy implements Strategy {
                     ? copy.getPlayerTwo() : copy.getPlayerOne();
 
             copy.takeSpaces(meCopy, opCopy, copy.getAvailableMoves(meCopy), dest);
-            int score = minimax(copy, meCopy, opCopy, MAX_DEPTH - 1, false);
+            int score = minimax(copy, meCopy, opCopy, control.depth(depth) - 1, false, control);
+            if (control.isStopped()) {
+                break;  // this move's score is incomplete
+            }
             if (score > bestScore) {
                 bestScore = score;
                 bestMove  = dest;
             }
+            if (progress.isDue()) {
+                progress.report(control.depth(depth), control.nodes(), bestMove, bestScore);
+            }
+        }
+        if (cache != null && !control.isStopped()) {
+            cache.put(key, bestMove.getX() * OthelloGame.GAME_BOARD_SIZE + bestMove.getY(), cacheDepth,
+                    (float) bestScore);
         }
-        return bestMove;
+        // stopped before any move was scored: any legal move beats none
+        BoardSpace choice = bestMove != null ? bestMove : moves.keySet().iterator().next();
+        progress.report(control.depth(depth), control.nodes(), choice, bestMove != null ? bestScore : Double.NaN);
+        return choice;
     }
 
+    /**
+     * @return the minimax value, or an arbitrary one once control has stopped
+     */
     private int minimax(OthelloGame game, Player me, Player opponent,
-                        int depth, boolean maximizing) {
+                        int depth, boolean maximizing, SearchControl control) {
+        if (!control.visit()) {
+            return 0;
+        }
         Player current = maximizing ? me : opponent;
         Player other   = maximizing ? opponent : me;
 
@@ -62,7 +150,7 @@ public class MinimaxStrategy implements Strategy {
             return evaluateBoard(game, me, opponent);
         }
         // Otherwise skip this player’s turn (do not decrease depth)
-        return minimax(game, me, opponent, depth, !maximizing);
+        return minimax(game, me, opponent, depth, !maximizing, control);
     }
 
         int best = maximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
@@ -74,7 +162,7 @@ public class MinimaxStrategy implements Strategy {
                     ? copy.getPlayerTwo() : copy.getPlayerOne();
 
             copy.takeSpaces(curCopy, othCopy, copy.getAvailableMoves(curCopy), dest);
-            int val = minimax(copy, me, opponent, depth - 1, !maximizing);
+            int val = minimax(copy, me, opponent, depth - 1, !maximizing, control);
             best = maximizing ? Math.max(best, val) : Math.min(best, val);
         }
         return best;
@@ -0,0 +1,531 @@
+package othello.gamelogic.strategy;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Struct-of-arrays storage for an MCTS tree.
+ * Node i is the i-th entry of every array; the children of a node occupy one
+ * contiguous block starting at {@code firstChild[i]}. Nodes are bump-allocated
+ * from arrays sized once up front, so a search creates no per-node objects and
+ * {@link #reset()} makes the whole arena reusable for the next decision.
+ *
+ * Statistics are updated with atomic VarHandle operations and a node's
+ * children are published with a release store of {@code firstChild}, so
+ * several workers can share one arena without locks.
+ *
+ * In transposition mode the arena also keeps a lock-free position table.
+ * A child whose position already has a node elsewhere becomes an alias
+ * whose {@code link} points at that canonical node: the canonical node holds
+ * the shared statistics and subtree, while the alias slot only counts the
+ * visits made through its own edge in {@code edgeVisits}.
+ *
+ * In lazy mode the arena keeps no per-node positions at all: {@code own}
+ * and {@code opp} are null and the search rebuilds each position by playing
+ * the moves on its path from {@link #rootOwn}/{@link #rootOpp}.
+ *
+ * With pruning on, a full arena is shrunk by {@link #prune()} instead of
+ * ending the search. Workers hold the read side of {@code pruneLock} for each
+ * iteration, and the pruning worker holds the write side.
+ */
+final class NodeArena {
+    /** firstChild value of a leaf nobody has expanded yet. */
+    static final int UNEXPANDED = -1;
+    /** firstChild value while one worker is filling in the children. */
+    static final int EXPANDING = -2;
+
+    /** proven value: not (yet) decided. */
+    static final byte UNPROVEN = 0;
+    /** proven value: the player who moved into the node loses with best play. */
+    static final byte PROVEN_LOSS = 1;
+    /** proven value: the game is drawn with best play. */
+    static final byte PROVEN_DRAW = 2;
+    /** proven value: the player who moved into the node wins with best play. */
+    static final byte PROVEN_WIN = 3;
+
+    /** Score units per win; a draw scores half of this. */
+    static final long WIN = 1 << 16;
+
+    static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+    static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    final int capacity;
+    final int[] visits;
+    final long[] wins;          // in WIN units, for the player who moved into the node
+    final int[] virtualLoss;
+    final int[] firstChild;
+    final byte[] childCount;
+    final byte[] move;          // square played into the node, or BitBoard.PASS
+    final long[] own;           // discs of the side to move at the node, null in lazy mode
+    final long[] opp;           // discs of the side that just moved, null in lazy mode
+    final byte[] proven;        // game-theoretic value for the player who moved into the node
+    final int[] amafVisits;     // all-moves-as-first statistics, null unless RAVE is on
+    final long[] amafWins;
+    final float[] prior;        // heuristic value of the node's move in [0, 1], null without priors
+    final int[] link;           // canonical node of the slot's position, null without transpositions
+    final int[] edgeVisits;     // visits through the slot's edge, null without transpositions
+
+    private final int[] table;  // canonical node index + 1 per hash slot, 0 = free
+    private int[] newIndex;     // compaction scratch space, allocated on first use
+    private int[] stack;
+
+    /** Root of the current tree; moves when the arena is compacted or pruned. */
+    int root;
+    /** Position at the root, seen from the side to move. */
+    long rootOwn;
+    long rootOpp;
+    /** Keeps iterations out of the arena while it is pruned, null unless pruning is on. */
+    final ReentrantReadWriteLock pruneLock;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private int peak;           // most nodes in use before a compaction since the last reset
+    private volatile boolean exhausted;
+
+    NodeArena(int capacity) {
+        this(capacity, new MCTSConfig());
+    }
+
+    /**
+     * @param capacity number of nodes to pre-allocate
+     * @param config decides which optional arrays (RAVE statistics, priors,
+     *               transpositions, pruning) are allocated, and whether
+     *               positions are stored
+     */
+    NodeArena(int capacity, MCTSConfig config) {
+        this.capacity = capacity;
+        visits = new int[capacity];
+        wins = new long[capacity];
+        virtualLoss = new int[capacity];
+        firstChild = new int[capacity];
+        childCount = new byte[capacity];
+        move = new byte[capacity];
+        boolean positions = !config.isLazyPositions();
+        own = positions ? new long[capacity] : null;
+        opp = positions ? new long[capacity] : null;
+        proven = new byte[capacity];
+        boolean amaf = config.isRave();
+        amafVisits = amaf ? new int[capacity] : null;
+        amafWins = amaf ? new long[capacity] : null;
+        prior = config.getPrior() != MCTSConfig.Prior.NONE ? new float[capacity] : null;
+        boolean transpositions = config.isTranspositions();
+        link = transpositions ? new int[capacity] : null;
+        edgeVisits = transpositions ? new int[capacity] : null;
+        // at most half full, so probes stay short and never run out of slots
+        table = transpositions ? new int[Integer.highestOneBit(Math.max(capacity, 1)) * 4] : null;
+        pruneLock = config.isPrune() ? new ReentrantReadWriteLock() : null;
+    }
+
+    /**
+     * Forgets every node so the arrays can be reused.
+     */
+    void reset() {
+        next.set(0);
+        peak = 0;
+        exhausted = false;
+        if (table != null) {
+            Arrays.fill(table, 0);
+        }
+    }
+
+    /**
+     * Keeps only the subtree below one node, sliding the surviving nodes to
+     * the front of the arrays in their current order so every child block
+     * stays contiguous, and frees the rest of the arena. In transposition
+     * mode nodes reached through aliases survive too and the position table
+     * is rebuilt. The kept node becomes the root. No other thread may use
+     * the arena meanwhile.
+     * @param keep the root of the subtree to keep
+     * @return the new index of that root
+     */
+    int compact(int keep) {
+        mark(keep, 0, false);
+        return slide(keep);
+    }
+
+    /**
+     * Frees at least half of the arena by collapsing the least visited
+     * subtrees back into unexpanded leaves. A collapsed node keeps its own
+     * statistics and proven value and is simply expanded again if the search
+     * returns to it. The visit threshold below which subtrees collapse is
+     * doubled until enough space is freed. No other thread may use the
+     * arena meanwhile.
+     * @return the new index of the root
+     */
+    int prune() {
+        int threshold = 2;
+        while (mark(root, threshold, false) > capacity / 2 && threshold <= visits[root]) {
+            threshold *= 2;
+        }
+        mark(root, threshold, true);
+        return slide(root);
+    }
+
+    /**
+     * Marks the nodes reachable from a root: newIndex becomes 0 for them and
+     * -1 for the rest. The search does not descend below expanded nodes with
+     * fewer than threshold visits, which are collapsed if requested.
+     * @return the number of marked nodes
+     */
+    private int mark(int from, int threshold, boolean collapse) {
+        int n = size();
+        if (newIndex == null) {
+            newIndex = new int[capacity];
+            stack = new int[capacity];
+        }
+        Arrays.fill(newIndex, 0, n, -1);
+        int top = 0;
+        int live = 1;
+        newIndex[from] = 0;
+        stack[top++] = from;
+        while (top > 0) {
+            int i = stack[--top];
+            int first = firstChild[i];
+            if (i != from && first >= 0 && visits[i] < threshold) {
+                if (collapse) {
+                    firstChild[i] = UNEXPANDED;
+                    childCount[i] = 0;
+                }
+                continue;
+            }
+            for (int c = Math.max(first, 0); c < first + childCount[i]; c++) {
+                if (newIndex[c] < 0) {
+                    newIndex[c] = 0;
+                    stack[top++] = c;
+                    live++;
+                }
+                int t = target(c);
+                if (newIndex[t] < 0) {
+                    newIndex[t] = 0;
+                    stack[top++] = t;
+                    live++;
+                }
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Slides the marked nodes to the front and remaps the links between them.
+     * @return the new index of node keep, which becomes the root
+     */
+    private int slide(int keep) {
+        int n = size();
+        peak = Math.max(peak, n);
+        // live nodes only move towards the front, so nothing live is overwritten
+        int live = 0;
+        for (int i = 0; i < n; i++) {
+            if (newIndex[i] == 0) {
+                newIndex[i] = live;
+                if (live != i) {
+                    moveNode(i, live);
+                }
+                live++;
+            }
+        }
+        for (int j = 0; j < live; j++) {
+            if (firstChild[j] >= 0) {
+                firstChild[j] = newIndex[firstChild[j]];
+            }
+            if (link != null) {
+                link[j] = newIndex[link[j]];
+            }
+        }
+        next.set(live);
+        exhausted = false;
+        if (table != null) {
+            Arrays.fill(table, 0);
+            for (int j = 0; j < live; j++) {
+                if (link[j] == j) {
+                    intern(j);
+                }
+            }
+        }
+        root = newIndex[keep];
+        return root;
+    }
+
+    /**
+     * @return the most nodes in use at once since the last reset
+     */
+    int peakSize() {
+        return Math.max(peak, size());
+    }
+
+    /**
+     * @return approximate heap footprint of the arena's node arrays in bytes
+     */
+    long footprintBytes() {
+        long perNode = 4 + 8 + 4 + 4 + 1 + 1 + 1;  // visits ... proven
+        if (own != null) {
+            perNode += 8 + 8;
+        }
+        if (amafVisits != null) {
+            perNode += 4 + 8;
+        }
+        if (prior != null) {
+            perNode += 4;
+        }
+        if (link != null) {
+            perNode += 4 + 4 + 4L * table.length / capacity;
+        }
+        if (newIndex != null) {
+            perNode += 4 + 4;
+        }
+        return perNode * capacity;
+    }
+
+    private void moveNode(int from, int to) {
+        visits[to] = visits[from];
+        wins[to] = wins[from];
+        virtualLoss[to] = virtualLoss[from];
+        firstChild[to] = firstChild[from];
+        childCount[to] = childCount[from];
+        move[to] = move[from];
+        if (own != null) {
+            own[to] = own[from];
+            opp[to] = opp[from];
+        }
+        proven[to] = proven[from];
+        if (amafVisits != null) {
+            amafVisits[to] = amafVisits[from];
+            amafWins[to] = amafWins[from];
+        }
+        if (prior != null) {
+            prior[to] = prior[from];
+        }
+        if (link != null) {
+            link[to] = link[from];
+            edgeVisits[to] = edgeVisits[from];
+        }
+    }
+
+    /**
+     * @return number of allocated nodes
+     */
+    int size() {
+        return next.get();
+    }
+
+    /**
+     * @return true once an allocation has failed for lack of space
+     */
+    boolean isExhausted() {
+        return exhausted;
+    }
+
+    /**
+     * Allocates and initialises one node.
+     * @return the node index, or -1 if the arena is full
+     */
+    int newNode(int square, long ownDiscs, long oppDiscs) {
+        int i = allocate(1);
+        if (i >= 0) {
+            init(i, square, ownDiscs, oppDiscs);
+        }
+        return i;
+    }
+
+    /**
+     * Reserves a contiguous block of n nodes.
+     * @return the index of the first node, or -1 if the arena is full
+     */
+    int allocate(int n) {
+        int base;
+        do {
+            base = next.get();
+            if (base + n > capacity) {
+                exhausted = true;
+                return -1;
+            }
+        } while (!next.compareAndSet(base, base + n));
+        return base;
+    }
+
+    /**
+     * Resets every field of a freshly allocated node. The position is
+     * dropped in lazy mode.
+     */
+    void init(int i, int square, long ownDiscs, long oppDiscs) {
+        visits[i] = 0;
+        wins[i] = 0;
+        virtualLoss[i] = 0;
+        firstChild[i] = UNEXPANDED;
+        childCount[i] = 0;
+        move[i] = (byte) square;
+        if (own != null) {
+            own[i] = ownDiscs;
+            opp[i] = oppDiscs;
+        }
+        proven[i] = UNPROVEN;
+        if (link != null) {
+            link[i] = i;
+            edgeVisits[i] = 0;
+        }
+        if (amafVisits != null) {
+            amafVisits[i] = 0;
+            amafWins[i] = 0;
+        }
+    }
+
+    /**
+     * Looks up the position of a freshly initialised node in the position
+     * table, registering the node as canonical if the position is new, and
+     * sets its link accordingly. Must run before the node is published.
+     * @return the canonical node of the position
+     */
+    int intern(int i) {
+        int mask = table.length - 1;
+        for (int h = hash(own[i], opp[i]) & mask; ; h = (h + 1) & mask) {
+            int entry = (int) INTS.getAcquire(table, h);
+            if (entry == 0) {
+                // the release CAS publishes own/opp of node i to later probes
+                if ((int) INTS.compareAndExchangeRelease(table, h, 0, i + 1) == 0) {
+                    link[i] = i;
+                    return i;
+                }
+                entry = (int) INTS.getAcquire(table, h);
+            }
+            int j = entry - 1;
+            if (own[j] == own[i] && opp[j] == opp[i]) {
+                link[i] = j;
+                return j;
+            }
+        }
+    }
+
+    private static int hash(long own, long opp) {
+        long h = own * 0x9E3779B97F4A7C15L ^ opp * 0xC2B2AE3D27D4EB4FL;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        return (int) (h ^ h >>> 33);
+    }
+
+    /**
+     * @return the node holding the statistics of slot i: its canonical node
+     *         in transposition mode, otherwise i itself
+     */
+    int target(int i) {
+        return link == null ? i : link[i];
+    }
+
+    /**
+     * @return number of slots that alias a node elsewhere in the arena
+     */
+    int transpositions() {
+        if (link == null) {
+            return 0;
+        }
+        int count = 0;
+        for (int i = 0, n = size(); i < n; i++) {
+            if (link[i] != i) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the node's first child, UNEXPANDED or EXPANDING; children
+     *         written before {@link #publishChildren} are visible afterwards
+     */
+    int firstChild(int i) {
+        return (int) INTS.getAcquire(firstChild, i);
+    }
+
+    /**
+     * Claims an unexpanded node for expansion.
+     * @return true if the caller now owns the expansion
+     */
+    boolean claim(int i) {
+        return INTS.compareAndSet(firstChild, i, UNEXPANDED, EXPANDING);
+    }
+
+    /**
+     * Hands a claimed node back when its children could not be allocated.
+     */
+    void unclaim(int i) {
+        INTS.setRelease(firstChild, i, UNEXPANDED);
+    }
+
+    /**
+     * Makes a claimed node's children visible to other workers.
+     */
+    void publishChildren(int i, int first, int count) {
+        childCount[i] = (byte) count;
+        INTS.setRelease(firstChild, i, first);
+    }
+
+    /**
+     * @param value a proven value for one player
+     * @return the same result for the other player
+     */
+    static byte negate(byte value) {
+        return value == UNPROVEN ? UNPROVEN : (byte) (PROVEN_WIN + PROVEN_LOSS - value);
+    }
+
+    int edgeVisits(int i) {
+        return (int) INTS.getOpaque(edgeVisits, i);
+    }
+
+    void addEdgeVisits(int i, int count) {
+        INTS.getAndAdd(edgeVisits, i, count);
+    }
+
+    int visits(int i) {
+        return (int) INTS.getOpaque(visits, i);
+    }
+
+    long wins(int i) {
+        return (long) LONGS.getOpaque(wins, i);
+    }
+
+    int virtualLoss(int i) {
+        return (int) INTS.getOpaque(virtualLoss, i);
+    }
+
+    void addVirtualLoss(int i, int amount) {
+        INTS.getAndAdd(virtualLoss, i, amount);
+    }
+
+    /**
+     * Records one finished iteration through the node.
+     * @param score the result in WIN units for the player who moved into the node
+     */
+    void update(int i, long score) {
+        update(i, score, 1);
+    }
+
+    /**
+     * Records several finished playouts through the node at once.
+     * @param score their summed result in WIN units for the player who moved into the node
+     */
+    void update(int i, long score, int count) {
+        INTS.getAndAdd(visits, i, count);
+        if (score != 0) {
+            LONGS.getAndAdd(wins, i, score);
+        }
+    }
+
+    int amafVisits(int i) {
+        return (int) INTS.getOpaque(amafVisits, i);
+    }
+
+    long amafWins(int i) {
+        return (long) LONGS.getOpaque(amafWins, i);
+    }
+
+    /**
+     * Records that the node's move was played later in an iteration by the
+     * same player, as if it had been played first.
+     * @param score the result in WIN units for that player
+     */
+    void updateAmaf(int i, long score) {
+        INTS.getAndAdd(amafVisits, i, 1);
+        if (score != 0) {
+            LONGS.getAndAdd(amafWins, i, score);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package othello.gamelogic.strategy;
+
+import othello.Constants;
+import othello.gamelogic.BitBoard;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+
+/**
+ * Plays uniformly random games to the end on {@link BitBoard} masks.
+ * A playout allocates nothing: the position lives in two longs and moves are
+ * drawn straight from the legal-move bitmask.
+ *
+ * An engine owns its SplittableRandom and is not thread-safe; give every
+ * worker thread its own engine.
+ *
+ * An engine built with an epsilon below 1 plays heavy playouts instead:
+ * a corner is always taken when one is legal; otherwise, with probability
+ * 1 - epsilon, the move is drawn from the best tier of legal squares by
+ * {@link Constants#BOARD_WEIGHTS}, where the C- and X-squares next to an
+ * occupied corner lose their penalty. Tiers are precomputed masks, so a
+ * heavy move costs a few ANDs more than a uniform one.
+ */
+public class PlayoutEngine {
+    /** Returned by a truncated playout that stopped before the end of the game. */
+    public static final int CUT_OFF = Integer.MIN_VALUE;
+
+    private static final long CORNERS = BitBoard.bit(0, 0) | BitBoard.bit(0, 7) | BitBoard.bit(7, 0) | BitBoard.bit(7, 7);
+    /** Legal squares grouped by board weight, best tier first. */
+    private static final long[] TIERS = weightTiers();
+    /** C- and X-squares next to each corner, in the order of CORNER_SQUARES. */
+    private static final int[] CORNER_SQUARES = {0, 7, 56, 63};
+    private static final long[] NEAR_CORNER = {
+            BitBoard.bit(0, 1) | BitBoard.bit(1, 0) | BitBoard.bit(1, 1),
+            BitBoard.bit(0, 6) | BitBoard.bit(1, 7) | BitBoard.bit(1, 6),
+            BitBoard.bit(7, 1) | BitBoard.bit(6, 0) | BitBoard.bit(6, 1),
+            BitBoard.bit(7, 6) | BitBoard.bit(6, 7) | BitBoard.bit(6, 6)};
+    /** Tier that C- and X-squares join once their corner is occupied. */
+    private static final int NEUTRAL_TIER = tierOf(BitBoard.bit(2, 2));
+
+    private final SplittableRandom random;
+    private final double epsilon;  // chance of a uniform move in a heavy playout, 1 = uniform playouts
+    private long movesByFirst;   // squares played in the last playout by the side that started it
+    private long movesBySecond;  // ... and by the other side
+    private long cutoffOwn;      // position where the last truncated playout stopped,
+    private long cutoffOpp;      // seen from the side to move at its start
+
+    public PlayoutEngine(SplittableRandom random) {
+        this(random, 1);
+    }
+
+    /**
+     * @param epsilon chance, in [0, 1], that a heavy playout plays a uniformly
+     *                random move instead of the policy's; 1 = uniform playouts
+     */
+    public PlayoutEngine(SplittableRandom random, double epsilon) {
+        if (!(epsilon >= 0 && epsilon <= 1)) {
+            throw new IllegalArgumentException("epsilon must be in [0, 1]: " + epsilon);
+        }
+        this.random = random;
+        this.epsilon = epsilon;
+    }
+
+    private static long[] weightTiers() {
+        int[] weights = Arrays.stream(Constants.BOARD_WEIGHTS).flatMapToInt(Arrays::stream)
+                .distinct().boxed().sorted(Comparator.reverseOrder()).mapToInt(Integer::intValue).toArray();
+        long[] tiers = new long[weights.length];
+        for (int t = 0; t < weights.length; t++) {
+            for (int sq = 0; sq < BitBoard.SQUARES; sq++) {
+                if (Constants.BOARD_WEIGHTS[sq / 8][sq % 8] == weights[t]) {
+                    tiers[t] |= 1L << sq;
+                }
+            }
+        }
+        return tiers;
+    }
+
+    private static int tierOf(long square) {
+        int t = 0;
+        while ((TIERS[t] & square) == 0) {
+            t++;
+        }
+        return t;
+    }
+
+    /**
+     * Plays random moves, passing when forced, until neither side can move.
+     * @param own discs of the side to move
+     * @param opp discs of the other side
+     * @return final disc count of the side to move minus that of the other side
+     */
+    public int playout(long own, long opp) {
+        return playout(own, opp, 0, 0);
+    }
+
+    /**
+     * Plays random moves like {@link #playout(long, long)}, but may stop
+     * before the end of the game.
+     * @param maxPlies stop after this many moves (passes not counted), 0 = no limit
+     * @param stopEmpties stop once no more than this many squares are empty, 0 = no limit
+     * @return the final disc margin for the side to move, or {@link #CUT_OFF}
+     *         if the playout stopped early; the position it stopped in is
+     *         then available from {@link #getCutoffOwn()} and {@link #getCutoffOpp()}
+     */
+    public int playout(long own, long opp, int maxPlies, int stopEmpties) {
+        boolean swapped = false;
+        long byFirst = 0, bySecond = 0;
+        int plies = 0;
+        while (true) {
+            if ((maxPlies > 0 && plies == maxPlies)
+                    || (stopEmpties > 0 && BitBoard.SQUARES - Long.bitCount(own | opp) <= stopEmpties)) {
+                movesByFirst = byFirst;
+                movesBySecond = bySecond;
+                cutoffOwn = swapped ? opp : own;
+                cutoffOpp = swapped ? own : opp;
+                if (BitBoard.legalMoves(own, opp) != 0 || BitBoard.legalMoves(opp, own) != 0) {
+                    return CUT_OFF;
+                }
+                break;  // the game happens to be over: score it exactly
+            }
+            long moves = BitBoard.legalMoves(own, opp);
+            if (moves == 0) {
+                if (BitBoard.legalMoves(opp, own) == 0) {
+                    break;  // both sides blocked: game over
+                }
+                // pass
+                long tmp = own;
+                own = opp;
+                opp = tmp;
+                swapped = !swapped;
+                continue;
+            }
+            if (epsilon < 1) {
+                moves = policy(moves, own | opp);
+            }
+            int sq = BitBoard.nthSquare(moves, random.nextInt(Long.bitCount(moves)));
+            long flipped = BitBoard.flips(own, opp, sq);
+            if (swapped) {
+                bySecond |= 1L << sq;
+            } else {
+                byFirst |= 1L << sq;
+            }
+            long next = opp & ~flipped;
+            opp = own | flipped | (1L << sq);
+            own = next;
+            swapped = !swapped;
+            plies++;
+        }
+        movesByFirst = byFirst;
+        movesBySecond = bySecond;
+        int diff = Long.bitCount(own) - Long.bitCount(opp);
+        return swapped ? -diff : diff;
+    }
+
+    /**
+     * Narrows the legal moves of a heavy playout down to the squares to draw from.
+     * @param occupied every disc on the board
+     */
+    private long policy(long moves, long occupied) {
+        if ((moves & CORNERS) != 0) {
+            return moves & CORNERS;
+        }
+        if (random.nextDouble() < epsilon) {
+            return moves;
+        }
+        long neutral = 0;
+        for (int c = 0; c < CORNER_SQUARES.length; c++) {
+            if ((occupied >>> CORNER_SQUARES[c] & 1) != 0) {
+                neutral |= NEAR_CORNER[c];
+            }
+        }
+        for (int t = 0; t < TIERS.length; t++) {
+            long tier = t == NEUTRAL_TIER ? (TIERS[t] | neutral) : (TIERS[t] & ~neutral);
+            if ((moves & tier) != 0) {
+                return moves & tier;
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * @return mask of the squares played in the last playout by the side to move at its start
+     */
+    public long getMovesByFirst() {
+        return movesByFirst;
+    }
+
+    /**
+     * @return mask of the squares played in the last playout by the other side
+     */
+    public long getMovesBySecond() {
+        return movesBySecond;
+    }
+
+    /**
+     * @return discs, where the last truncated playout stopped, of the side to move at its start
+     */
+    public long getCutoffOwn() {
+        return cutoffOwn;
+    }
+
+    /**
+     * @return discs, where the last truncated playout stopped, of the other side
+     */
+    public long getCutoffOpp() {
+        return cutoffOpp;
+    }
+}
@@ -0,0 +1,26 @@
+package othello.gamelogic.strategy;
+
+import othello.gamelogic.OthelloGame;
+import othello.gamelogic.Player;
+
+/**
+ * A strategy that can keep thinking in the background while the opponent is
+ * on move and reuse that work for its next {@link Strategy#chooseMove} call.
+ */
+public interface Ponderable {
+
+    /**
+     * Starts searching the current position, with the opponent of me on
+     * move, in the background. Returns immediately.
+     * @param game the game; its board is read before this method returns
+     * @param me the player this strategy moves for
+     */
+    void startPondering(OthelloGame game, Player me);
+
+    /**
+     * Tells a background search to stop, without waiting for it to wind
+     * down: the next {@link Strategy#chooseMove} does that. Does nothing if
+     * the strategy is not pondering.
+     */
+    void stopPondering();
+}
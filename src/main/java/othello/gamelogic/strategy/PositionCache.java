@@ -0,0 +1,265 @@
+package othello.gamelogic.strategy;
+
+import othello.gamelogic.BitBoard;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Search results kept across sessions in a memory-mapped file of fixed
+ * buckets: for each position, the depth it was searched to, its score and
+ * the best move. Strategies read through the cache at the root of a
+ * decision and write back searches that completed.
+ *
+ * The file is sized once from a byte cap and never grows. A bucket holds
+ * {@value #WAYS} entries; a new result replaces the entry of the same
+ * position if it was searched at least as deep, otherwise the entry of an
+ * earlier session or else the shallowest one.
+ *
+ * Each entry is two longs, the packed result and the key XOR the packed
+ * result, written without locks. An entry torn by a crash, or read while
+ * another thread writes it, fails that check and reads as a miss, so a
+ * corrupt result is never returned. The file is locked against other
+ * processes; within one process share it with {@link #shared}.
+ *
+ * File layout, big-endian: magic, version, bucket count and session
+ * generation (ints) in a 64-byte header, then the buckets.
+ */
+public final class PositionCache implements Closeable {
+    private static final int MAGIC = 0x4F504343;  // "OPCC"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int ENTRY_BYTES = 16;
+    private static final int WAYS = 4;
+    private static final Map<Path, PositionCache> SHARED = new HashMap<>();
+
+    /** Deepest search an entry records; past the end of any game, so deeper searches are stored as this. */
+    public static final int MAX_DEPTH = 0xFF;
+
+    /** A cached search result. */
+    public record Entry(int move, int depth, float score) {
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final MappedByteBuffer map;
+    private final int buckets;      // a power of two
+    private final int generation;   // of this session, stamped on the entries it writes
+    private volatile boolean closed;
+
+    private PositionCache(Path file, FileChannel channel, FileLock lock, MappedByteBuffer map,
+                          int buckets, int generation) {
+        this.file = file;
+        this.channel = channel;
+        this.lock = lock;
+        this.map = map;
+        this.buckets = buckets;
+        this.generation = generation;
+    }
+
+    /**
+     * Opens a cache file, creating it if needed. An existing file whose
+     * layout does not match the byte cap is cleared and resized.
+     * @param maxBytes cap on the file size
+     * @throws IOException if the file cannot be mapped or another process has it open
+     */
+    public static PositionCache open(Path file, long maxBytes) throws IOException {
+        long bucketBytes = (long) WAYS * ENTRY_BYTES;
+        if (maxBytes < HEADER_BYTES + bucketBytes) {
+            throw new IllegalArgumentException("maxBytes must be at least " + (HEADER_BYTES + bucketBytes)
+                    + ": " + maxBytes);
+        }
+        // a mapping is indexed by int, so the file stays below 2 GB
+        int buckets = Integer.highestOneBit((int) Math.min((maxBytes - HEADER_BYTES) / bucketBytes, 1 << 24));
+        long length = HEADER_BYTES + buckets * bucketBytes;
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) {
+                throw new IOException("Position cache is in use: " + file);
+            }
+            boolean fresh = channel.size() != length;
+            if (fresh) {
+                channel.truncate(0);
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            if (fresh || map.getInt(0) != MAGIC || map.getInt(4) != VERSION || map.getInt(8) != buckets) {
+                for (int i = 0; !fresh && i < length; i += 8) {
+                    map.putLong(i, 0);  // a new file is zero already
+                }
+                map.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, buckets);
+            }
+            int generation = (map.getInt(12) + 1) & 0xFFFF;
+            map.putInt(12, generation);
+            return new PositionCache(file, channel, lock, map, buckets, generation);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the open cache of a file, opening it on first use, so every
+     * strategy of this process writes to the same mapping.
+     * @param maxBytes cap on the file size when it is opened by this call
+     */
+    public static PositionCache shared(Path file, long maxBytes) throws IOException {
+        Path path = file.toAbsolutePath().normalize();
+        synchronized (SHARED) {
+            PositionCache cache = SHARED.get(path);
+            if (cache == null || cache.closed) {
+                cache = open(path, maxBytes);
+                SHARED.put(path, cache);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Reads the cache and cacheMB options of a strategy spec.
+     * @return the shared cache of the file the spec names, or null if it names none
+     */
+    static PositionCache fromSpec(StrategySpec spec) {
+        String file = spec.getString("cache", null);
+        long megabytes = spec.getInt("cacheMB", 64);
+        if (file == null) {
+            return null;
+        }
+        try {
+            return shared(Path.of(file), megabytes << 20);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot open position cache " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param strategy name of the strategy whose results are cached, since
+     *                 scores and depths differ between strategies
+     * @return the key of a position searched by that strategy
+     */
+    public static long key(long own, long opp, String strategy) {
+        return BitBoard.hash(own, opp) ^ strategy.hashCode() * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * @return the cached result of the position, or null if there is none
+     */
+    public Entry get(long key) {
+        if (closed) {
+            return null;
+        }
+        int first = bucket(key);
+        for (int w = 0; w < WAYS; w++) {
+            int at = first + w * ENTRY_BYTES;
+            long data = map.getLong(at + 8);
+            if (data != 0 && (map.getLong(at) ^ data) == key) {
+                return new Entry((int) (data & 0xFF), (int) (data >>> 8 & 0xFF),
+                        Float.intBitsToFloat((int) (data >>> 32)));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Looks up the root of a decision.
+     * @param legal the legal moves at the root
+     * @return the cached result if it was searched at least minDepth deep
+     *         and its move is legal, otherwise null
+     */
+    Entry probeRoot(long key, int minDepth, long legal) {
+        Entry entry = get(key);
+        return entry != null && entry.depth() >= minDepth && (legal >>> entry.move() & 1) != 0 ? entry : null;
+    }
+
+    /**
+     * Stores the result of a completed search.
+     * @param move best move as x * 8 + y
+     * @param depth depth searched, 1 to {@value #MAX_DEPTH}
+     */
+    public synchronized void put(long key, int move, int depth, float score) {
+        if (closed) {
+            return;
+        }
+        if (depth < 1 || depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("depth must be in [1, " + MAX_DEPTH + "]: " + depth);
+        }
+        int first = bucket(key);
+        int victim = -1;
+        int victimRank = Integer.MAX_VALUE;
+        for (int w = 0; w < WAYS; w++) {
+            int at = first + w * ENTRY_BYTES;
+            long data = map.getLong(at + 8);
+            if (data != 0 && (map.getLong(at) ^ data) == key) {
+                if ((data >>> 8 & 0xFF) > depth) {
+                    return;  // keep the deeper result
+                }
+                victim = at;
+                break;
+            }
+            // rank: empty or clearly torn (its key belongs elsewhere) first, then earlier sessions, then shallower
+            boolean valid = data != 0 && bucket(map.getLong(at) ^ data) == first;
+            int rank = !valid ? -1 : ((data >>> 16 & 0xFFFF) == generation ? 256 : 0) + (int) (data >>> 8 & 0xFF);
+            if (rank < victimRank) {
+                victimRank = rank;
+                victim = at;
+            }
+        }
+        long data = (move & 0xFFL) | (long) depth << 8 | (long) generation << 16
+                | (long) Float.floatToIntBits(score) << 32;
+        map.putLong(victim + 8, data);
+        map.putLong(victim, key ^ data);
+    }
+
+    /**
+     * @return number of entries the cache can hold
+     */
+    public int capacity() {
+        return buckets * WAYS;
+    }
+
+    /**
+     * Writes the changes back to the file.
+     */
+    public void flush() {
+        map.force();
+    }
+
+    /**
+     * Flushes and unlocks the file. Later lookups miss and stores are ignored.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        flush();
+        lock.release();
+        channel.close();
+        synchronized (SHARED) {
+            SHARED.remove(file.toAbsolutePath().normalize(), this);
+        }
+    }
+
+    private int bucket(long key) {
+        return HEADER_BYTES + (int) (key & (buckets - 1)) * WAYS * ENTRY_BYTES;
+    }
+}
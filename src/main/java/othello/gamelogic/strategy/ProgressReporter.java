@@ -0,0 +1,48 @@
+package othello.gamelogic.strategy;
+
+import othello.gamelogic.BoardSpace;
+import othello.gamelogic.OthelloGame;
+
+import java.util.function.Consumer;
+
+/**
+ * Throttles the progress reports of one decision to the interval of its
+ * {@link SearchLimits}. A search asks {@link #isDue()} as it goes, so the
+ * snapshot is only built when it will be sent, and reports once more when
+ * it has chosen its move. Used by the searching thread only.
+ */
+final class ProgressReporter {
+    private final Consumer<SearchProgress> listener;  // null = nobody listens
+    private final long intervalNanos;
+    private final BoardSpace[][] board;
+    private final long start = System.nanoTime();
+    private long last = start;
+
+    ProgressReporter(SearchLimits limits, OthelloGame game) {
+        this.listener = limits.getProgressListener();
+        this.intervalNanos = limits.getProgressIntervalMs() * 1_000_000L;
+        this.board = game.getBoard();
+    }
+
+    /**
+     * @return whether a report should be sent now
+     */
+    boolean isDue() {
+        return listener != null && System.nanoTime() - last >= intervalNanos;
+    }
+
+    void report(int depth, long nodes, BoardSpace bestMove, double score) {
+        if (listener != null) {
+            last = System.nanoTime();
+            listener.accept(new SearchProgress(depth, nodes, bestMove, score, last - start));
+        }
+    }
+
+    /**
+     * @param square best move as x * size + y, or -1 if there is none yet
+     */
+    void report(int depth, long nodes, int square, double score) {
+        int size = OthelloGame.GAME_BOARD_SIZE;
+        report(depth, nodes, square < 0 ? null : board[square / size][square % size], score);
+    }
+}
@@ -0,0 +1,55 @@
+package othello.gamelogic.strategy;
+
+/**
+ * The limits and cancellation token of one decision of a single-threaded
+ * search, checked as it counts nodes. Once a check fails the search stays
+ * stopped.
+ */
+final class SearchControl {
+    /** Nodes between reads of the clock. */
+    private static final int CLOCK_INTERVAL = 64;
+
+    private final SearchLimits limits;
+    private final CancellationToken token;
+    private final long deadline;
+    private long nodes;
+    private boolean stopped;
+
+    SearchControl(SearchLimits limits, CancellationToken token) {
+        this.limits = limits;
+        this.token = token;
+        this.deadline = limits.deadlineOrMax();
+    }
+
+    /**
+     * Counts one node.
+     * @return false once the search must stop
+     */
+    boolean visit() {
+        if (!stopped) {
+            nodes++;
+            stopped = (limits.getMaxNodes() > 0 && nodes > limits.getMaxNodes())
+                    || token.isCancelled()
+                    || (nodes % CLOCK_INTERVAL == 0 && System.nanoTime() >= deadline);
+        }
+        return !stopped;
+    }
+
+    /**
+     * @return nodes counted so far
+     */
+    long nodes() {
+        return nodes;
+    }
+
+    boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * @return the depth limit, or the strategy's default if none is set
+     */
+    int depth(int defaultDepth) {
+        return limits.getMaxDepth() > 0 ? limits.getMaxDepth() : defaultDepth;
+    }
+}
@@ -0,0 +1,120 @@
+package othello.gamelogic.strategy;
+
+import java.util.function.Consumer;
+
+/**
+ * Per-decision limits passed to {@link Strategy#chooseMove(othello.gamelogic.OthelloGame,
+ * othello.gamelogic.Player, SearchLimits, CancellationToken)}, on top of the
+ * strategy's own configuration. Zero means "no limit" for every field.
+ * Setters return this object so limits can be chained:
+ * <pre>new SearchLimits().setTimeBudgetMs(200).setMaxNodes(100_000)</pre>
+ *
+ * Every strategy honours the deadline. Minimax and Expectimax count the
+ * positions they visit as nodes and search to the given depth instead of
+ * their default; MCTS counts tree nodes and ignores the depth; CustomStrategy
+ * counts rollouts as nodes and ignores the depth.
+ *
+ * A progress listener, if set, receives a {@link SearchProgress} snapshot
+ * at most once per progress interval while the search runs, and once more
+ * when the move is chosen. It is called on the searching thread.
+ */
+public class SearchLimits {
+    private long deadlineNanos = 0;
+    private long maxNodes = 0;
+    private int maxDepth = 0;
+    private Consumer<SearchProgress> progressListener;
+    private long progressIntervalMs = 100;
+
+    /**
+     * @return the {@link System#nanoTime()} by which the decision must be made
+     *         (0 = none)
+     */
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    /**
+     * @param deadlineNanos a {@link System#nanoTime()} value, so time spent
+     *                      queueing before the search counts too
+     */
+    public SearchLimits setDeadlineNanos(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+        return this;
+    }
+
+    /**
+     * Sets the deadline to the given time from now.
+     */
+    public SearchLimits setTimeBudgetMs(long timeBudgetMs) {
+        if (timeBudgetMs <= 0) {
+            throw new IllegalArgumentException("timeBudgetMs must be positive: " + timeBudgetMs);
+        }
+        this.deadlineNanos = System.nanoTime() + timeBudgetMs * 1_000_000L;
+        return this;
+    }
+
+    /**
+     * @return the work a decision may do, in the strategy's unit of nodes (0 = no limit)
+     */
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    public SearchLimits setMaxNodes(long maxNodes) {
+        if (maxNodes < 0) {
+            throw new IllegalArgumentException("maxNodes must not be negative: " + maxNodes);
+        }
+        this.maxNodes = maxNodes;
+        return this;
+    }
+
+    /**
+     * @return search depth in plies for depth-limited strategies (0 = their default)
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public SearchLimits setMaxDepth(int maxDepth) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("maxDepth must not be negative: " + maxDepth);
+        }
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    /**
+     * @return the listener for progress reports, or null if there is none
+     */
+    public Consumer<SearchProgress> getProgressListener() {
+        return progressListener;
+    }
+
+    /**
+     * @param progressListener called on the searching thread, so it must be
+     *                         quick and hand anything slow to another thread
+     */
+    public SearchLimits setProgressListener(Consumer<SearchProgress> progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    public long getProgressIntervalMs() {
+        return progressIntervalMs;
+    }
+
+    public SearchLimits setProgressIntervalMs(long progressIntervalMs) {
+        if (progressIntervalMs < 0) {
+            throw new IllegalArgumentException("progressIntervalMs must not be negative: " + progressIntervalMs);
+        }
+        this.progressIntervalMs = progressIntervalMs;
+        return this;
+    }
+
+    /**
+     * @return the deadline as a {@link System#nanoTime()} value, Long.MAX_VALUE if there is none
+     */
+    long deadlineOrMax() {
+        return deadlineNanos == 0 ? Long.MAX_VALUE : deadlineNanos;
+    }
+}
@@ -0,0 +1,60 @@
+package othello.gamelogic.strategy;
+
+import othello.gamelogic.BoardSpace;
+
+/**
+ * A snapshot of a running decision, reported to the progress listener of
+ * its {@link SearchLimits}. The depth is the search depth in plies for
+ * Minimax and Expectimax, the length of the most visited line for MCTS and
+ * 1 for CustomStrategy's rollouts. The score is in the strategy's own unit:
+ * a positional weight sum for Minimax, an expected value for Expectimax and
+ * a win rate for MCTS and CustomStrategy; NaN if nothing has been scored yet.
+ */
+public class SearchProgress {
+    private final int depth;
+    private final long nodes;
+    private final BoardSpace bestMove;
+    private final double score;
+    private final long elapsedNanos;
+
+    public SearchProgress(int depth, long nodes, BoardSpace bestMove, double score, long elapsedNanos) {
+        this.depth = depth;
+        this.nodes = nodes;
+        this.bestMove = bestMove;
+        this.score = score;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the work done so far, in the strategy's unit of nodes (see {@link SearchLimits})
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the move the strategy would play now, or null before any move has been scored
+     */
+    public BoardSpace getBestMove() {
+        return bestMove;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        String move = bestMove == null ? "-" : "(" + bestMove.getX() + ", " + bestMove.getY() + ")";
+        return String.format("depth %d, %,d nodes, best %s, score %.2f, %.0f ms",
+                depth, nodes, move, score, elapsedNanos / 1e6);
+    }
+}
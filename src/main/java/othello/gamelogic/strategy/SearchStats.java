@@ -0,0 +1,106 @@
+package othello.gamelogic.strategy;
+
+/**
+ * Work done by one search decision: iterations, tree size, transpositions
+ * found, prunes and memory high-water mark, time saved by stopping early,
+ * and elapsed time.
+ */
+public class SearchStats {
+    private final long iterations;
+    private final int treeSize;
+    private final int transpositions;
+    private final int prunes;
+    private final int peakNodes;
+    private final long arenaBytes;
+    private final long savedNanos;
+    private final long elapsedNanos;
+
+    public SearchStats(long iterations, int treeSize, int transpositions, int prunes, int peakNodes,
+                       long arenaBytes, long savedNanos, long elapsedNanos) {
+        this.iterations = iterations;
+        this.treeSize = treeSize;
+        this.transpositions = transpositions;
+        this.prunes = prunes;
+        this.peakNodes = peakNodes;
+        this.arenaBytes = arenaBytes;
+        this.savedNanos = savedNanos;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getIterations() {
+        return iterations;
+    }
+
+    /**
+     * @return number of tree nodes at the end of the search (summed over trees)
+     */
+    public int getTreeSize() {
+        return treeSize;
+    }
+
+    /**
+     * @return number of child slots that share the node of a position reached
+     *         by another move order (0 unless transpositions are enabled)
+     */
+    public int getTranspositions() {
+        return transpositions;
+    }
+
+    /**
+     * @return number of times a full tree was pruned to keep searching
+     */
+    public int getPrunes() {
+        return prunes;
+    }
+
+    /**
+     * @return most tree nodes in use at once (summed over trees); with tree
+     *         reuse this covers the searches since the tree was started
+     */
+    public int getPeakNodes() {
+        return peakNodes;
+    }
+
+    /**
+     * @return approximate bytes pre-allocated for the trees, 0 if unknown
+     */
+    public long getArenaBytes() {
+        return arenaBytes;
+    }
+
+    /**
+     * @return budget left unspent because the decision was settled early:
+     *         the time to the deadline, or the remaining iterations at the
+     *         search's rate (0 if the whole budget was used)
+     */
+    public long getSavedNanos() {
+        return savedNanos;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getIterationsPerSecond() {
+        return elapsedNanos == 0 ? 0 : iterations * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        String text = String.format("%,d iterations in %.1f ms (%,.0f/s), %,d nodes",
+                iterations, elapsedNanos / 1e6, getIterationsPerSecond(), treeSize);
+        if (transpositions > 0) {
+            text += String.format(" (%,d transpositions)", transpositions);
+        }
+        if (prunes > 0) {
+            text += String.format(", %,d prunes, peak %,d nodes", prunes, peakNodes);
+        }
+        if (savedNanos > 0) {
+            text += String.format(", stopped early saving %.1f ms", savedNanos / 1e6);
+        }
+        if (arenaBytes > 0) {
+            text += String.format(", %.1f MB arena", arenaBytes / 1e6);
+        }
+        return text;
+    }
+}
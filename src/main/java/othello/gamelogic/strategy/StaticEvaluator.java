@@ -0,0 +1,69 @@
+package othello.gamelogic.strategy;
+
+import othello.Constants;
+import othello.gamelogic.BitBoard;
+
+/**
+ * Fast static evaluation of bitboard positions, used to score truncated
+ * playouts. The score combines the square weights of
+ * {@link Constants#BOARD_WEIGHTS} with the mobility difference and is
+ * squashed by a logistic function into a win probability.
+ */
+public final class StaticEvaluator {
+    /** Evaluation points per unit of mobility difference. */
+    private static final int MOBILITY_WEIGHT = 100;
+    /** Evaluation points that move the win probability from 50% to about 73%. */
+    private static final double SCALE = 300;
+
+    /** Distinct square weights, and the mask of the squares carrying each. */
+    private static final int[] WEIGHTS;
+    private static final long[] MASKS;
+
+    static {
+        long[] byWeight = new long[512];  // indexed by weight + 256
+        int distinct = 0;
+        for (int x = 0; x < BitBoard.SQUARES / 8; x++) {
+            for (int y = 0; y < BitBoard.SQUARES / 8; y++) {
+                int w = Constants.BOARD_WEIGHTS[x][y] + 256;
+                if (byWeight[w] == 0) {
+                    distinct++;
+                }
+                byWeight[w] |= BitBoard.bit(x, y);
+            }
+        }
+        WEIGHTS = new int[distinct];
+        MASKS = new long[distinct];
+        for (int w = 0, i = 0; w < byWeight.length; w++) {
+            if (byWeight[w] != 0) {
+                WEIGHTS[i] = w - 256;
+                MASKS[i++] = byWeight[w];
+            }
+        }
+    }
+
+    private StaticEvaluator() {
+    }
+
+    /**
+     * @param own discs of the side being evaluated
+     * @param opp discs of the other side
+     * @return the evaluation in points, positive when own is better off
+     */
+    public static int evaluate(long own, long opp) {
+        int score = 0;
+        for (int i = 0; i < MASKS.length; i++) {
+            score += WEIGHTS[i] * (Long.bitCount(own & MASKS[i]) - Long.bitCount(opp & MASKS[i]));
+        }
+        int mobility = Long.bitCount(BitBoard.legalMoves(own, opp)) - Long.bitCount(BitBoard.legalMoves(opp, own));
+        return score + MOBILITY_WEIGHT * mobility;
+    }
+
+    /**
+     * @param own discs of the side being evaluated
+     * @param opp discs of the other side
+     * @return the estimated probability, in (0, 1), that own wins
+     */
+    public static double winProbability(long own, long opp) {
+        return 1 / (1 + Math.exp(-evaluate(own, opp) / SCALE));
+    }
+}
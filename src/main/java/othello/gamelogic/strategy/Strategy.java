@@ -4,17 +4,70 @@ import othello.gamelogic.BoardSpace;
 import othello.gamelogic.OthelloGame;
 import othello.gamelogic.Player;
 
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * Strategy interface for AI players.
  * Each implementation defines a different move selection algorithm.
+ *
+ * A strategy may own threads; {@link #close()} releases them once it has
+ * made its last decision.
  */
-public interface Strategy {
+public interface Strategy extends AutoCloseable {
     /**
-     * Returns the best move based on the current game state.
+     * Returns the best move based on the current game state, within the
+     * strategy's own configured budget.
      *
      * @param game the current Othello game
-     * @return the chosen BoardSpace to place a disc
+     * @return the chosen BoardSpace to place a disc, or null if me has no legal move
      */
+    default BoardSpace chooseMove(OthelloGame game, Player me) {
+        return chooseMove(game, me, new SearchLimits(), new CancellationToken());
+    }
 
-    BoardSpace chooseMove(OthelloGame game, Player me);
+    /**
+     * Returns the best move found within both the strategy's configuration
+     * and the given limits. A search stopped by a limit or by cancellation
+     * still returns a legal move when there is one.
+     *
+     * @param game the current Othello game
+     * @param limits deadline, node and depth limits for this decision
+     * @param cancel checked cooperatively while searching
+     * @return the chosen BoardSpace to place a disc, or null if me has no
+     *         legal move (the caller passes)
+     */
+    BoardSpace chooseMove(OthelloGame game, Player me, SearchLimits limits, CancellationToken cancel);
+
+    /**
+     * Runs {@link #chooseMove(OthelloGame, Player, SearchLimits, CancellationToken)}
+     * on the given executor. Cancelling the returned future cancels the
+     * token, so the search stops at its next check. Progress goes to the
+     * listener of the limits, on the executor's thread.
+     *
+     * The game must not change while the search runs; after a cancellation
+     * that may be a little longer than the future takes to complete.
+     *
+     * @return the chosen move, or the search's exception
+     */
+    default CompletableFuture<BoardSpace> chooseMoveAsync(OthelloGame game, Player me, SearchLimits limits,
+                                                          CancellationToken cancel, Executor executor) {
+        CompletableFuture<BoardSpace> future =
+                CompletableFuture.supplyAsync(() -> chooseMove(game, me, limits, cancel), executor);
+        future.whenComplete((move, error) -> {
+            if (error instanceof CancellationException) {
+                cancel.cancel();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Releases the threads and other resources of this strategy. It must not
+     * choose moves afterwards. Does nothing by default.
+     */
+    @Override
+    default void close() {
+    }
 }
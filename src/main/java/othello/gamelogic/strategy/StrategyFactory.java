@@ -1,14 +1,42 @@
 package othello.gamelogic.strategy;
 
+import java.util.*;
+
+/**
+ * Creates strategies from spec strings (see {@link StrategySpec}), e.g.
+ * "minimax", "minimax:depth=4" or "mcts:threads=8,timeMs=500,c=1.2".
+ * Strategy names are resolved by the {@link StrategyProvider}s registered
+ * with {@link ServiceLoader}, loaded on first use.
+ */
 public class StrategyFactory {
+    private static Map<String, StrategyProvider> providers;
+
+    public static Strategy create(String spec) {
+        StrategySpec parsed = StrategySpec.parse(spec);
+        StrategyProvider provider = providers().get(parsed.getName());
+        if (provider == null) {
+            throw new IllegalArgumentException("Unknown strategy: " + parsed.getName());
+        }
+        return provider.create(parsed);
+    }
+
+    /**
+     * @return the names of the registered strategies, sorted
+     */
+    public static Set<String> names() {
+        return providers().keySet();
+    }
 
-    public static Strategy create(String name) {
-        return switch (name) {
-            case "minimax" -> new MinimaxStrategy();
-            case "expectimax" -> new ExpectimaxStrategy();
-            case "mcts" -> new MCTSStrategy();
-            case "custom" -> new CustomStrategy();
-            default -> throw new IllegalArgumentException("Unknown strategy: " + name);
-        };
+    private static synchronized Map<String, StrategyProvider> providers() {
+        if (providers == null) {
+            Map<String, StrategyProvider> found = new TreeMap<>();
+            for (StrategyProvider provider : ServiceLoader.load(StrategyProvider.class)) {
+                if (found.putIfAbsent(provider.name(), provider) != null) {
+                    throw new IllegalStateException("Two strategies are named " + provider.name());
+                }
+            }
+            providers = Collections.unmodifiableMap(found);
+        }
+        return providers;
     }
 }
@@ -0,0 +1,22 @@
+package othello.gamelogic.strategy;
+
+/**
+ * Creates one kind of strategy from a {@link StrategySpec}. Providers are
+ * found by {@link StrategyFactory} through {@link java.util.ServiceLoader},
+ * so a strategy outside this package registers itself with a
+ * {@code provides} clause in its module (or a META-INF/services entry on
+ * the class path) instead of an edit to the factory.
+ */
+public interface StrategyProvider {
+    /**
+     * @return the name a spec selects this strategy by, lower case
+     */
+    String name();
+
+    /**
+     * @param spec the spec naming this strategy; read every option it supports,
+     *             then call {@link StrategySpec#checkAllUsed()}
+     * @throws IllegalArgumentException if an option is unknown or out of range
+     */
+    Strategy create(StrategySpec spec);
+}
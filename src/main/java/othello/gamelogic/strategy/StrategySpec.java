@@ -0,0 +1,176 @@
+package othello.gamelogic.strategy;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * A parsed strategy spec: a strategy name, optionally followed by a colon
+ * and comma-separated key=value options, e.g.
+ * <pre>mcts:threads=8,timeMs=500,c=1.2</pre>
+ * Names, keys and enum values are case-insensitive; whitespace around them
+ * is ignored.
+ *
+ * A {@link StrategyProvider} reads the options it knows with the
+ * {@code if...} methods, which hand a parsed value to a setter when the key
+ * is present, or with {@code get...} methods taking a default, and then calls {@link #checkAllUsed()} so a mistyped key is
+ * reported instead of silently ignored. Malformed specs and values throw
+ * IllegalArgumentException.
+ */
+public class StrategySpec {
+    private final String text;
+    private final String name;
+    private final Map<String, String> options = new LinkedHashMap<>();
+    private final Set<String> used = new HashSet<>();
+
+    private StrategySpec(String text, String name) {
+        this.text = text;
+        this.name = name;
+    }
+
+    public static StrategySpec parse(String text) {
+        int colon = text.indexOf(':');
+        String name = (colon < 0 ? text : text.substring(0, colon)).trim().toLowerCase(Locale.ROOT);
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Strategy spec has no name: '" + text + "'");
+        }
+        StrategySpec spec = new StrategySpec(text, name);
+        if (colon >= 0) {
+            for (String option : text.substring(colon + 1).split(",")) {
+                int eq = option.indexOf('=');
+                String key = eq < 0 ? "" : option.substring(0, eq).trim().toLowerCase(Locale.ROOT);
+                if (key.isEmpty()) {
+                    throw new IllegalArgumentException("Expected key=value in '" + text + "': '" + option + "'");
+                }
+                if (spec.options.put(key, option.substring(eq + 1).trim()) != null) {
+                    throw new IllegalArgumentException("Option '" + key + "' given twice in '" + text + "'");
+                }
+            }
+        }
+        return spec;
+    }
+
+    /**
+     * @return the strategy name, lower case
+     */
+    public String getName() {
+        return name;
+    }
+
+    public boolean has(String key) {
+        return options.containsKey(key.toLowerCase(Locale.ROOT));
+    }
+
+    public void ifInt(String key, IntConsumer setter) {
+        String value = take(key);
+        if (value != null) {
+            int parsed;
+            try {
+                parsed = Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw invalid(key, value, "an integer");
+            }
+            setter.accept(parsed);
+        }
+    }
+
+    /**
+     * @return the option's value, or the default if it is not given
+     */
+    public int getInt(String key, int defaultValue) {
+        int[] value = {defaultValue};
+        ifInt(key, v -> value[0] = v);
+        return value[0];
+    }
+
+    /**
+     * @return the option's value, or the default if it is not given
+     */
+    public String getString(String key, String defaultValue) {
+        String value = take(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public void ifLong(String key, LongConsumer setter) {
+        String value = take(key);
+        if (value != null) {
+            long parsed;
+            try {
+                parsed = Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                throw invalid(key, value, "an integer");
+            }
+            setter.accept(parsed);
+        }
+    }
+
+    public void ifDouble(String key, DoubleConsumer setter) {
+        String value = take(key);
+        if (value != null) {
+            double parsed;
+            try {
+                parsed = Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw invalid(key, value, "a number");
+            }
+            setter.accept(parsed);
+        }
+    }
+
+    /**
+     * Accepts true/false, on/off and yes/no.
+     */
+    public void ifBoolean(String key, Consumer<Boolean> setter) {
+        String value = take(key);
+        if (value != null) {
+            setter.accept(switch (value.toLowerCase(Locale.ROOT)) {
+                case "true", "on", "yes" -> true;
+                case "false", "off", "no" -> false;
+                default -> throw invalid(key, value, "true or false");
+            });
+        }
+    }
+
+    public <E extends Enum<E>> void ifEnum(String key, Class<E> type, Consumer<E> setter) {
+        String value = take(key);
+        if (value != null) {
+            E parsed;
+            try {
+                parsed = Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw invalid(key, value, "one of " + Arrays.toString(type.getEnumConstants()).toLowerCase(Locale.ROOT));
+            }
+            setter.accept(parsed);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if an option was not read by any {@code if...} or {@code get...} method
+     */
+    public void checkAllUsed() {
+        for (String key : options.keySet()) {
+            if (!used.contains(key)) {
+                throw new IllegalArgumentException("Unknown option '" + key + "' for strategy " + name
+                        + " in '" + text + "'");
+            }
+        }
+    }
+
+    private String take(String key) {
+        String k = key.toLowerCase(Locale.ROOT);
+        used.add(k);
+        return options.get(k);
+    }
+
+    private IllegalArgumentException invalid(String key, String value, String expected) {
+        return new IllegalArgumentException("Option '" + key.toLowerCase(Locale.ROOT) + "' of strategy " + name
+                + " must be " + expected + ": '" + value + "'");
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,89 @@
+package othello.gamelogic.strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Daemon worker threads of one strategy instance. A batch of tasks runs
+ * with its first task on the calling thread and the rest on the pool,
+ * which is started on first use and stopped by {@link #close()}.
+ */
+final class WorkerPool {
+    private final String name;
+    private final int threads;
+    private ExecutorService executor;
+    private boolean closed;
+
+    /**
+     * @param name the strategy name, used for thread names and error messages
+     * @param threads number of pool threads, not counting the caller
+     */
+    WorkerPool(String name, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1: " + threads);
+        }
+        this.name = name;
+        this.threads = threads;
+    }
+
+    /**
+     * Runs the first task on the calling thread and the rest on pool workers,
+     * then waits for all of them.
+     * @return the task results in submission order
+     */
+    <T> List<T> run(List<Callable<T>> tasks) {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (int i = 1; i < tasks.size(); i++) {
+            futures.add(executor().submit(tasks.get(i)));
+        }
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            results.add(tasks.get(0).call());
+            for (Future<T> f : futures) {
+                results.add(f.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(name + " search interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(name + " worker failed", e.getCause());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(name + " worker failed", e);
+        }
+        return results;
+    }
+
+    /**
+     * Lets the running tasks finish and stops the threads.
+     */
+    synchronized void close() {
+        closed = true;
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private synchronized ExecutorService executor() {
+        if (closed) {
+            throw new IllegalStateException(name + " strategy is closed");
+        }
+        if (executor == null) {
+            AtomicInteger count = new AtomicInteger();
+            String prefix = name.toLowerCase() + "-worker-";
+            executor = Executors.newFixedThreadPool(threads, r -> {
+                Thread t = new Thread(r, prefix + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return executor;
+    }
+}
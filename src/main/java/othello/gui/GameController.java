@@ -15,16 +15,23 @@ import javafx.scene.control.ComboBox;
 
 import javafx.scene.shape.Circle;
 import othello.gamelogic.*;
+import othello.gamelogic.book.OpeningBook;
 import othello.gamelogic.state.GameHistory;
 import othello.gamelogic.state.GameMemento;
+import othello.gamelogic.strategy.CancellationToken;
+import othello.gamelogic.strategy.SearchLimits;
+import othello.gamelogic.strategy.SearchProgress;
+import othello.gamelogic.strategy.StrategySpec;
 import javafx.stage.FileChooser;
 import othello.util.SaveLoadUtil;
 
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Manages the interaction between model and view of the game.
@@ -64,6 +71,8 @@ public class GameController  {
     private OthelloGame og;
     private int skippedTurns;
     private GUISpace[][] guiBoard;
+    private CompletableFuture<BoardSpace> decision;  // the computer's search in progress, null if none
+    private CancellationToken decisionCancel;        // stops that search
 
     /**
      * Starts the game, called after controller initialization  in start method of App.
@@ -73,20 +82,32 @@ public class GameController  {
      * @param arg2 type of player for player 2, either "human" or some computer strategy
      */
     public void initGame(String arg1, String arg2) {
+        // a search of the previous game must not land on this one, and its computers stop for good
+        cancelDecision();
+        stopComputers(true);
+
         Player playerOne;
         Player playerTwo;
         // Player 1
-        if (arg1.equals("human")) {
+        if (arg1.equalsIgnoreCase("human")) {
             playerOne = new HumanPlayer();
         } else {
-            playerOne = new ComputerPlayer(arg1);
+            playerOne = new ComputerPlayer(withPondering(arg1));
         }
 
         // Player 2
-        if (arg2.equals("human")) {
+        if (arg2.equalsIgnoreCase("human")) {
             playerTwo = new HumanPlayer();
         } else {
-            playerTwo = new ComputerPlayer(arg2);
+            playerTwo = new ComputerPlayer(withPondering(arg2));
+        }
+
+        // Computer players open from the book named by -Dothello.book, if any
+        OpeningBook book = openingBook();
+        for (Player player : List.of(playerOne, playerTwo)) {
+            if (player instanceof ComputerPlayer computer) {
+                computer.setOpeningBook(book);
+            }
         }
 
         // Set Colors.
@@ -104,6 +125,35 @@ public class GameController  {
         takeTurn(playerOne);
     }
 
+    /**
+     * Turns on pondering for an MCTS player, which is off by default, unless
+     * the spec sets it: the window leaves the computer idle while a human thinks.
+     */
+    private static String withPondering(String spec) {
+        StrategySpec parsed = StrategySpec.parse(spec);
+        if (!parsed.getName().equals("mcts") || parsed.has("ponder")) {
+            return spec;
+        }
+        return spec + (spec.contains(":") ? "," : ":") + "ponder=true";
+    }
+
+    /**
+     * Opens the opening book file named by the othello.book system property.
+     * @return the book, or null if none is named or it cannot be read
+     */
+    private static OpeningBook openingBook() {
+        String file = System.getProperty("othello.book");
+        if (file == null) {
+            return null;
+        }
+        try {
+            return OpeningBook.open(Path.of(file));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
     /**
      * Displays the board initially, adding the GUI squares into the window.
      * Also adds the initial state of the board with black and white taking spaces at the center.
@@ -127,20 +177,19 @@ public class GameController  {
      */
     @FXML
     private void onStartGame(ActionEvent event) {
-        //  Read and normalize the selected strategy names
-        String blackChoice = blackPlayerType.getValue().toLowerCase();
-        String whiteChoice = whitePlayerType.getValue().toLowerCase();
-
-        //  Instantiate each player: use HumanPlayer for "human", otherwise use ComputerPlayer with the chosen strategy
-        Player black = "human".equals(blackChoice)
-                ? new HumanPlayer()
-                : new ComputerPlayer(blackChoice);
-        Player white = "human".equals(whiteChoice)
-                ? new HumanPlayer()
-                : new ComputerPlayer(whiteChoice);
-
-        //  Initialize the game logic with the provided strategy identifiers
-        initGame(blackChoice, whiteChoice);
+        //  Read the selected strategy names; the boxes are editable, so a choice can be a spec
+        //  like "mcts:threads=4,timeMs=1000". Names and keys are case-insensitive, but values such as
+        //  cache file paths are not, so the choice is only trimmed
+        String blackChoice = blackPlayerType.getValue().trim();
+        String whiteChoice = whitePlayerType.getValue().trim();
+
+        //  Initialize the game logic with the provided strategy specs, leaving the controls open if one is invalid
+        try {
+            initGame(blackChoice, whiteChoice);
+        } catch (IllegalArgumentException e) {
+            turnLabel.setText("Invalid player:\n" + e.getMessage());
+            return;
+        }
 
         //  Disable the selection controls and start button to lock in the players
         blackPlayerType.setDisable(true);
@@ -177,6 +226,8 @@ public class GameController  {
             File file = chooser.showOpenDialog(gameBoard.getScene().getWindow());
             if (file != null) {
                 try {
+                    cancelDecision();
+                    stopComputers(false);  // a ponder would be for the old position
                     SaveLoadUtil.loadGame(og, file);
 
                     clearBoard();
@@ -284,7 +335,10 @@ public class GameController  {
             return;
         }
 
-        // normal case: player has moves
+        // normal case: player has moves; a computer opponent thinks ahead meanwhile
+        if (otherPlayer(player) instanceof ComputerPlayer computer) {
+            computer.startPondering(og);
+        }
         for (BoardSpace dest : myMoves.keySet()) {
             GUISpace gs = guiBoard[dest.getX()][dest.getY()];
             Pane cell = gs.getSquare();
@@ -324,15 +378,84 @@ public class GameController  {
             return;
         }
 
-        // normal case: computer makes a move
-        BoardSpace choice = og.computerDecision(player);
-        og.takeSpaces(player, otherPlayer(player), myMoves, choice);
-        updateGUIBoard(player, myMoves, choice);
+        // normal case: the computer searches on the engine thread while the window stays responsive;
+        // loading a game meanwhile would change the board under the search
+        computerTurnBtn.setDisable(true);
+        loadBtn.setDisable(true);
+        CancellationToken cancel = new CancellationToken();
+        SearchLimits limits = new SearchLimits().setProgressListener(progress -> Platform.runLater(() -> {
+            if (decisionCancel == cancel) {
+                thinkingText(player, progress);
+            }
+        }));
+        decisionCancel = cancel;
+        decision = og.computerDecisionAsync(player, limits, cancel);
+        decision.whenComplete((choice, error) -> Platform.runLater(() -> {
+            if (decisionCancel != cancel) {
+                return;  // cancelled by a load or a new game: the move is for another position
+            }
+            decision = null;
+            decisionCancel = null;
+            computerTurnBtn.setDisable(false);
+            loadBtn.setDisable(false);
+            if (error != null) {
+                error.printStackTrace();
+                turnText(player);
+                return;
+            }
+            og.takeSpaces(player, otherPlayer(player), myMoves, choice);
+            updateGUIBoard(player, myMoves, choice);
+
+            clearBoard();
+            displayBoard();
+            turnText(otherPlayer(player));
+            takeTurn(otherPlayer(player));
+        }));
+    }
 
-        clearBoard();
-        displayBoard();
-        turnText(otherPlayer(player));
-        Platform.runLater(() -> takeTurn(otherPlayer(player)));
+    /**
+     * Stops the computer's search in progress, if any; its move is ignored.
+     */
+    private void cancelDecision() {
+        if (decisionCancel != null) {
+            decisionCancel.cancel();
+            decision.cancel(false);
+            decision = null;
+            decisionCancel = null;
+            computerTurnBtn.setDisable(false);
+            loadBtn.setDisable(false);
+        }
+    }
+
+    /**
+     * Stops the background thinking of the current game's computer players.
+     * @param close also release their threads, when the game is abandoned
+     */
+    private void stopComputers(boolean close) {
+        if (og == null) {
+            return;
+        }
+        for (Player player : List.of(og.getPlayerOne(), og.getPlayerTwo())) {
+            if (player instanceof ComputerPlayer computer) {
+                computer.stopPondering();
+                if (close) {
+                    computer.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Displays the progress of a computer player's search.
+     */
+    @FXML
+    protected void thinkingText(Player player, SearchProgress progress) {
+        BoardSpace best = progress.getBestMove();
+        turnLabel.setText(
+                player.getColor() + " is thinking...\n" +
+                        "Depth " + progress.getDepth() + ", " + progress.getNodes() + " nodes\n" +
+                        "Best: " + (best == null ? "-" : "(" + best.getX() + ", " + best.getY() + ")") +
+                        String.format(", score %.2f", progress.getScore()));
     }
 
     /**
@@ -345,6 +468,11 @@ public class GameController  {
     protected void selectSpace(Player player,
                                Map<BoardSpace, List<BoardSpace>> availableMoves,
                                BoardSpace selectedDestination) {
+        // 0. Stop a computer opponent's background search; its next decision reuses it
+        if (otherPlayer(player) instanceof ComputerPlayer computer) {
+            computer.stopPondering();
+        }
+
         // 1. Execute the move and flip logic in the game model
         og.takeSpaces(
                 player,
@@ -0,0 +1,382 @@
+package othello.tournament;
+
+import othello.gamelogic.strategy.CancellationToken;
+import othello.gamelogic.strategy.StrategyFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A sequential probability ratio test of whether a candidate strategy is
+ * stronger than a baseline: games are played until the evidence decides
+ * between H0, the candidate is elo0 stronger, and H1, it is elo1 stronger,
+ * with false positive rate alpha and false negative rate beta. A clear
+ * difference is decided in far fewer games than a fixed-length match that
+ * gives the same guarantees.
+ *
+ * Games are played in pairs on the same opening with the colours swapped.
+ * In pentanomial mode (the default) each pair is one observation, scored
+ * 0 to 2, which cancels most of the colour and opening bias; otherwise
+ * every game is one observation. After each observation the log-likelihood
+ * ratio is updated with the normalized (generalized) SPRT approximation,
+ *   LLR = n (s1 - s0) (2 mean - s0 - s1) / (2 variance)
+ * where s0 and s1 are the expected scores at elo0 and elo1, and the match
+ * stops once it leaves (ln(beta / (1 - alpha)), ln((1 - beta) / alpha)).
+ *
+ * Pairs run in parallel on a pool of worker threads and are counted in the
+ * order they finish. Once the test decides, the pairs still running are
+ * cancelled and {@link #run} returns when their searches have stopped. Setters return this test so options can be chained:
+ * <pre>new Sprt().setElo1(20).setThreads(8).run("mcts:rave=true", "mcts")</pre>
+ * Or from the command line:
+ * <pre>java othello.tournament.Sprt [--elo0 E] [--elo1 E] [--alpha A] [--beta B] [--threads N]
+ *     [--max-games N] [--plies N] [--trinomial] candidate baseline</pre>
+ */
+public class Sprt {
+    /**
+     * Pseudo-observations added to every outcome, so the variance is never
+     * zero and the first few results cannot end the test on their own.
+     */
+    private static final double PRIOR = 0.5;
+
+    private double elo0 = 0;
+    private double elo1 = 20;
+    private double alpha = 0.05;
+    private double beta = 0.05;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int maxGames = 20000;
+    private int openingPlies = 4;
+    private boolean pentanomial = true;
+
+    public double getElo0() {
+        return elo0;
+    }
+
+    /**
+     * @param elo0 Elo advantage of the candidate under H0
+     */
+    public Sprt setElo0(double elo0) {
+        this.elo0 = elo0;
+        return this;
+    }
+
+    public double getElo1() {
+        return elo1;
+    }
+
+    /**
+     * @param elo1 Elo advantage of the candidate under H1, above elo0
+     */
+    public Sprt setElo1(double elo1) {
+        this.elo1 = elo1;
+        return this;
+    }
+
+    public double getAlpha() {
+        return alpha;
+    }
+
+    /**
+     * @param alpha probability of accepting H1 when H0 holds
+     */
+    public Sprt setAlpha(double alpha) {
+        if (!(alpha > 0 && alpha < 0.5)) {
+            throw new IllegalArgumentException("alpha must be in (0, 0.5): " + alpha);
+        }
+        this.alpha = alpha;
+        return this;
+    }
+
+    public double getBeta() {
+        return beta;
+    }
+
+    /**
+     * @param beta probability of accepting H0 when H1 holds
+     */
+    public Sprt setBeta(double beta) {
+        if (!(beta > 0 && beta < 0.5)) {
+            throw new IllegalArgumentException("beta must be in (0, 0.5): " + beta);
+        }
+        this.beta = beta;
+        return this;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public Sprt setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1: " + threads);
+        }
+        this.threads = threads;
+        return this;
+    }
+
+    public int getMaxGames() {
+        return maxGames;
+    }
+
+    /**
+     * @param maxGames games after which the test stops undecided
+     */
+    public Sprt setMaxGames(int maxGames) {
+        if (maxGames < 2) {
+            throw new IllegalArgumentException("maxGames must be at least 2: " + maxGames);
+        }
+        this.maxGames = maxGames;
+        return this;
+    }
+
+    public int getOpeningPlies() {
+        return openingPlies;
+    }
+
+    /**
+     * @param openingPlies plies from the start to the openings, which are
+     *                     played in order of balance and then repeated
+     */
+    public Sprt setOpeningPlies(int openingPlies) {
+        if (openingPlies < 0 || openingPlies % 2 != 0 || openingPlies > 8) {
+            throw new IllegalArgumentException("openingPlies must be even and in [0, 8]: " + openingPlies);
+        }
+        this.openingPlies = openingPlies;
+        return this;
+    }
+
+    public boolean isPentanomial() {
+        return pentanomial;
+    }
+
+    /**
+     * @param pentanomial true to update once per pair of games, false after
+     *                    each game, so the test can stop halfway through a pair
+     */
+    public Sprt setPentanomial(boolean pentanomial) {
+        this.pentanomial = pentanomial;
+        return this;
+    }
+
+    /**
+     * @return the lower bound of the log-likelihood ratio, where H0 is accepted
+     */
+    public double lowerBound() {
+        return Math.log(beta / (1 - alpha));
+    }
+
+    /**
+     * @return the upper bound of the log-likelihood ratio, where H1 is accepted
+     */
+    public double upperBound() {
+        return Math.log((1 - beta) / alpha);
+    }
+
+    /**
+     * Plays pairs of games until the test decides or maxGames is reached.
+     * @throws IllegalArgumentException if a spec is invalid, before any game starts
+     */
+    public SprtResult run(String candidate, String baseline) {
+        if (!(elo1 > elo0)) {
+            throw new IllegalArgumentException("elo1 must be above elo0: " + elo0 + ", " + elo1);
+        }
+        Tournament.validate(candidate);
+        Tournament.validate(baseline);
+        List<String> specs = List.of(candidate, baseline);
+        List<int[]> lines = Tournament.balancedOpenings(Integer.MAX_VALUE, openingPlies);
+
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "sprt-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        CompletionService<double[]> done = new ExecutorCompletionService<>(pool);
+        CancellationToken cancel = new CancellationToken();
+        int pairs = maxGames / 2;
+        int submitted = 0;
+        int[] trinomial = new int[3];    // candidate losses, draws, wins
+        int[] pentanomial = new int[5];  // pairs by candidate points: 0, 0.5, ..., 2
+        double llr = 0;
+        long start = System.nanoTime();
+        try {
+            for (; submitted < Math.min(threads, pairs); submitted++) {
+                int[] line = lines.get(submitted % lines.size());
+                done.submit(() -> playPair(specs, line, cancel));
+            }
+            pairs:
+            for (int finished = 0; finished < submitted; finished++) {
+                double[] pair = done.take().get();
+                for (double game : pair) {
+                    trinomial[(int) (game * 2)]++;
+                    if (!this.pentanomial && decided(llr = llr(trinomial))) {
+                        break pairs;  // the rest of the pair is not counted
+                    }
+                }
+                pentanomial[(int) ((pair[0] + pair[1]) * 2)]++;
+                if (this.pentanomial && decided(llr = llr(pentanomial))) {
+                    break;
+                }
+                if (submitted < pairs) {
+                    int[] line = lines.get(submitted++ % lines.size());
+                    done.submit(() -> playPair(specs, line, cancel));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("SPRT interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("SPRT game failed", e.getCause());
+        } finally {
+            Tournament.stop(pool, cancel);  // pairs still running are abandoned
+        }
+
+        SprtResult.Decision decision = llr >= upperBound() ? SprtResult.Decision.H1
+                : llr <= lowerBound() ? SprtResult.Decision.H0
+                : SprtResult.Decision.INCONCLUSIVE;
+        double[] counts = this.pentanomial ? regularize(pentanomial) : regularize(trinomial);
+        double[] moments = moments(counts);
+        double units = 0;
+        for (double c : counts) {
+            units += c;
+        }
+        double margin = 1.96 * Math.sqrt(moments[1] / units);
+        double fixed = Math.pow((quantile(1 - alpha) + quantile(1 - beta)) * Math.sqrt(moments[1])
+                / (score(elo1) - score(elo0)), 2);
+        int fixedGames = (int) Math.ceil(fixed) * (this.pentanomial ? 2 : 1);
+        double elo = TournamentResult.elo(clamp(moments[0], units)) + 0.0;
+        double eloError = (TournamentResult.elo(clamp(moments[0] + margin, units))
+                - TournamentResult.elo(clamp(moments[0] - margin, units))) / 2;
+        return new SprtResult(candidate, baseline, decision, llr, lowerBound(), upperBound(),
+                trinomial[2], trinomial[1], trinomial[0], pentanomial, elo, eloError, fixedGames,
+                System.nanoTime() - start);
+    }
+
+    private boolean decided(double llr) {
+        return llr >= upperBound() || llr <= lowerBound();
+    }
+
+    /**
+     * Plays an opening twice, the candidate (spec 0) black then white.
+     * @return the candidate's score in each game
+     */
+    private static double[] playPair(List<String> specs, int[] line, CancellationToken cancel) {
+        return new double[]{Tournament.play(specs, 0, 1, true, line, cancel).scoreA(),
+                Tournament.play(specs, 0, 1, false, line, cancel).scoreA()};
+    }
+
+    /**
+     * @param counts observations by candidate score, evenly spaced from 0 to 1
+     * @return the log-likelihood ratio of H1 against H0
+     */
+    double llr(int[] counts) {
+        double[] moments = moments(regularize(counts));
+        double n = 0;
+        for (int c : counts) {
+            n += c;
+        }
+        double s0 = score(elo0);
+        double s1 = score(elo1);
+        return n * (s1 - s0) * (2 * moments[0] - s0 - s1) / (2 * moments[1]);
+    }
+
+    private static double[] regularize(int[] counts) {
+        double[] out = new double[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            out[i] = counts[i] + PRIOR;
+        }
+        return out;
+    }
+
+    /**
+     * @return mean and variance of the score, with counts[i] observations of i / (length - 1)
+     */
+    private static double[] moments(double[] counts) {
+        double n = 0;
+        double sum = 0;
+        double squares = 0;
+        for (int i = 0; i < counts.length; i++) {
+            double x = i / (counts.length - 1.0);
+            n += counts[i];
+            sum += counts[i] * x;
+            squares += counts[i] * x * x;
+        }
+        double mean = sum / n;
+        return new double[]{mean, squares / n - mean * mean};
+    }
+
+    /**
+     * @return the expected score of a player the given Elo stronger
+     */
+    static double score(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    /**
+     * @return the score kept half an observation away from 0 and 1
+     */
+    private static double clamp(double score, double observations) {
+        double margin = 1 / (2 * observations);
+        return Math.max(margin, Math.min(1 - margin, score));
+    }
+
+    /**
+     * @return z such that a standard normal variable is below z with probability p
+     */
+    static double quantile(double p) {
+        double lo = -10;
+        double hi = 10;
+        for (int i = 0; i < 100; i++) {
+            double mid = (lo + hi) / 2;
+            if (normalCdf(mid) < p) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        return (lo + hi) / 2;
+    }
+
+    /**
+     * Standard normal CDF, by the Abramowitz and Stegun 7.1.26 approximation of erf
+     * (absolute error below 1.5e-7).
+     */
+    private static double normalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double erf = 1 - t * (0.254829592 + t * (-0.284496736 + t * (1.421413741
+                + t * (-1.453152027 + t * 1.061405429)))) * Math.exp(-x * x);
+        return z >= 0 ? (1 + erf) / 2 : (1 - erf) / 2;
+    }
+
+    public static void main(String[] args) {
+        Sprt sprt = new Sprt();
+        List<String> specs = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--elo0" -> sprt.setElo0(Double.parseDouble(args[++i]));
+                    case "--elo1" -> sprt.setElo1(Double.parseDouble(args[++i]));
+                    case "--alpha" -> sprt.setAlpha(Double.parseDouble(args[++i]));
+                    case "--beta" -> sprt.setBeta(Double.parseDouble(args[++i]));
+                    case "--threads" -> sprt.setThreads(Integer.parseInt(args[++i]));
+                    case "--max-games" -> sprt.setMaxGames(Integer.parseInt(args[++i]));
+                    case "--plies" -> sprt.setOpeningPlies(Integer.parseInt(args[++i]));
+                    case "--trinomial" -> sprt.setPentanomial(false);
+                    default -> specs.add(args[i]);
+                }
+            }
+            if (specs.size() != 2) {
+                throw new IllegalArgumentException("Expected a candidate and a baseline: " + specs);
+            }
+            System.out.print(sprt.run(specs.get(0), specs.get(1)));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Usage: Sprt [--elo0 E] [--elo1 E] [--alpha A] [--beta B] [--threads N]"
+                    + " [--max-games N] [--plies N] [--trinomial] candidate baseline"
+                    + " (strategies: " + StrategyFactory.names() + ")");
+            System.exit(1);
+        }
+    }
+}
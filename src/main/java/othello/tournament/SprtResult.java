@@ -0,0 +1,53 @@
+package othello.tournament;
+
+/**
+ * The outcome of an {@link Sprt} match, from the candidate's side.
+ * @param pentanomial pairs of games by the candidate's points in the pair: 0, 0.5, 1, 1.5 and 2
+ * @param eloError half-width of the 95% interval of the Elo estimate
+ * @param fixedGames games a fixed-length test with the same alpha, beta
+ *                   and observed variance would need
+ */
+public record SprtResult(String candidate, String baseline, Decision decision, double llr,
+                         double lowerBound, double upperBound, int wins, int draws, int losses,
+                         int[] pentanomial, double elo, double eloError, int fixedGames, long elapsedNanos) {
+    /** What the test concluded. */
+    public enum Decision {
+        /** the candidate is not elo1 stronger */
+        H0,
+        /** the candidate is stronger by more than elo0 */
+        H1,
+        /** maxGames was reached first */
+        INCONCLUSIVE
+    }
+
+    public SprtResult {
+        pentanomial = pentanomial.clone();
+    }
+
+    @Override
+    public int[] pentanomial() {
+        return pentanomial.clone();
+    }
+
+    public int games() {
+        return wins + draws + losses;
+    }
+
+    /**
+     * @return games saved against the fixed-length test, negative if the SPRT played more
+     */
+    public int gamesSaved() {
+        return fixedGames - games();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s vs %s: %s after %d games in %.1f s%n"
+                        + "  +%d =%d -%d, pairs %d %d %d %d %d, Elo %+.0f +/- %.0f%n"
+                        + "  LLR %.2f in (%.2f, %.2f)%n"
+                        + "  a fixed-length test needs %d games: %d saved%n",
+                candidate, baseline, decision, games(), elapsedNanos / 1e9,
+                wins, draws, losses, pentanomial[0], pentanomial[1], pentanomial[2], pentanomial[3],
+                pentanomial[4], elo, eloError, llr, lowerBound, upperBound, fixedGames, gamesSaved());
+    }
+}
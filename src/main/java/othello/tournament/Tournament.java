@@ -0,0 +1,300 @@
+package othello.tournament;
+
+import othello.gamelogic.BitBoard;
+import othello.gamelogic.BoardSpace;
+import othello.gamelogic.ComputerPlayer;
+import othello.gamelogic.OthelloGame;
+import othello.gamelogic.Player;
+import othello.gamelogic.strategy.CancellationToken;
+import othello.gamelogic.strategy.SearchLimits;
+import othello.gamelogic.strategy.StaticEvaluator;
+import othello.gamelogic.strategy.Strategy;
+import othello.gamelogic.strategy.StrategyFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless matches between strategy specs (see {@link StrategyFactory}),
+ * played in parallel on a pool of worker threads. Nothing here starts the
+ * JavaFX toolkit, so it runs from the command line or a server:
+ * <pre>java othello.tournament.Tournament [--gauntlet] [--threads N] [--openings N] [--plies N] spec spec...</pre>
+ *
+ * Every pairing plays each balanced opening twice, once with either side
+ * as black, so neither the first move nor a lopsided opening favours one
+ * strategy. Every game gets fresh strategy instances, so no search state
+ * carries over between games or threads. Setters return this tournament
+ * so options can be chained:
+ * <pre>new Tournament().setThreads(8).setOpenings(16).run(List.of("mcts", "minimax:depth=4"))</pre>
+ */
+public class Tournament {
+    /** Which specs play each other. */
+    public enum Format {
+        /** every spec against every other */
+        ROUND_ROBIN,
+        /** the first spec against each of the others */
+        GAUNTLET
+    }
+
+    private Format format = Format.ROUND_ROBIN;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int openings = 8;
+    private int openingPlies = 4;
+
+    /** One finished game: the result for a, and the decision times of each side. */
+    record Game(int a, int b, boolean aIsBlack, double scoreA, long[] nanosA, long[] nanosB) {
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public Tournament setFormat(Format format) {
+        this.format = Objects.requireNonNull(format);
+        return this;
+    }
+
+    /**
+     * @return number of games played at once
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    public Tournament setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1: " + threads);
+        }
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * @return number of opening positions per pairing, each played with both colours
+     */
+    public int getOpenings() {
+        return openings;
+    }
+
+    public Tournament setOpenings(int openings) {
+        if (openings < 1) {
+            throw new IllegalArgumentException("openings must be at least 1: " + openings);
+        }
+        this.openings = openings;
+        return this;
+    }
+
+    /**
+     * @return plies played from the start position to reach an opening, an even number so black moves next
+     */
+    public int getOpeningPlies() {
+        return openingPlies;
+    }
+
+    public Tournament setOpeningPlies(int openingPlies) {
+        if (openingPlies < 0 || openingPlies % 2 != 0 || openingPlies > 8) {
+            throw new IllegalArgumentException("openingPlies must be even and in [0, 8]: " + openingPlies);
+        }
+        this.openingPlies = openingPlies;
+        return this;
+    }
+
+    /**
+     * Plays every pairing of the format and waits for the last game.
+     * @param specs at least two strategy specs
+     * @throws IllegalArgumentException if a spec is invalid, before any game starts
+     */
+    public TournamentResult run(List<String> specs) {
+        if (specs.size() < 2) {
+            throw new IllegalArgumentException("A tournament needs at least two strategies: " + specs);
+        }
+        specs.forEach(Tournament::validate);
+        List<int[]> lines = balancedOpenings(openings, openingPlies);
+
+        CancellationToken cancel = new CancellationToken();
+        List<Callable<Game>> games = new ArrayList<>();
+        for (int a = 0; a < specs.size(); a++) {
+            for (int b = a + 1; b < specs.size(); b++) {
+                if (format == Format.GAUNTLET && a != 0) {
+                    continue;
+                }
+                for (int[] line : lines) {
+                    for (boolean aIsBlack : new boolean[]{true, false}) {
+                        int ia = a;
+                        int ib = b;
+                        games.add(() -> play(specs, ia, ib, aIsBlack, line, cancel));
+                    }
+                }
+            }
+        }
+
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "tournament-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        long start = System.nanoTime();
+        try {
+            List<Game> results = new ArrayList<>(games.size());
+            for (Future<Game> f : pool.invokeAll(games)) {
+                results.add(f.get());
+            }
+            return new TournamentResult(specs, results, lines.size(), System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tournament interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Tournament game failed", e.getCause());
+        } finally {
+            stop(pool, cancel);
+        }
+    }
+
+    /**
+     * Builds the strategy of a spec to check it, and closes it again.
+     * @throws IllegalArgumentException if the spec is invalid
+     */
+    static void validate(String spec) {
+        try (Strategy ignored = StrategyFactory.create(spec)) {
+            // building it is the check
+        }
+    }
+
+    /**
+     * Abandons the games still running on a pool and waits for its threads
+     * to go idle, so no search outlives the caller.
+     * @param cancel the token of those games
+     */
+    static void stop(ExecutorService pool, CancellationToken cancel) {
+        cancel.cancel();
+        pool.shutdown();
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                // a cancelled search ends at its next check
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Plays one game from an opening line to the end, with new strategies
+     * that are closed when it ends.
+     * @param cancel stops the search in progress and abandons the game
+     * @throws CancellationException if the game was abandoned
+     */
+    static Game play(List<String> specs, int a, int b, boolean aIsBlack, int[] line, CancellationToken cancel) {
+        try (Strategy sa = StrategyFactory.create(specs.get(a)); Strategy sb = StrategyFactory.create(specs.get(b))) {
+            return play(specs, a, b, aIsBlack, line, sa, sb, cancel);
+        }
+    }
+
+    private static Game play(List<String> specs, int a, int b, boolean aIsBlack, int[] line,
+                             Strategy sa, Strategy sb, CancellationToken cancel) {
+        ComputerPlayer pa = new ComputerPlayer(sa);
+        ComputerPlayer pb = new ComputerPlayer(sb);
+        OthelloGame game = aIsBlack ? new OthelloGame(pa, pb) : new OthelloGame(pb, pa);
+        Player current = game.getPlayerOne();
+        Player opponent = game.getPlayerTwo();
+        for (int sq : line) {
+            BoardSpace space = game.getBoard()[sq / OthelloGame.GAME_BOARD_SIZE][sq % OthelloGame.GAME_BOARD_SIZE];
+            game.takeSpaces(current, opponent, game.getAvailableMoves(current), space);
+            Player tmp = current;
+            current = opponent;
+            opponent = tmp;
+        }
+
+        List<Long> nanosA = new ArrayList<>();
+        List<Long> nanosB = new ArrayList<>();
+        while (true) {
+            Map<BoardSpace, List<BoardSpace>> moves = game.getAvailableMoves(current);
+            if (cancel.isCancelled()) {
+                throw new CancellationException("Game abandoned");
+            }
+            if (!moves.isEmpty()) {
+                long started = System.nanoTime();
+                BoardSpace choice = ((ComputerPlayer) current).chooseMove(game, new SearchLimits(), cancel);
+                (current == pa ? nanosA : nanosB).add(System.nanoTime() - started);
+                if (!moves.containsKey(choice)) {
+                    throw new IllegalStateException(specs.get(current == pa ? a : b) + " played an illegal move");
+                }
+                game.takeSpaces(current, opponent, moves, choice);
+            } else if (game.getAvailableMoves(opponent).isEmpty()) {
+                break;
+            }
+            Player tmp = current;
+            current = opponent;
+            opponent = tmp;
+        }
+        int margin = pa.getPlayerOwnedSpacesSpaces().size() - pb.getPlayerOwnedSpacesSpaces().size();
+        return new Game(a, b, aIsBlack, Math.signum(margin) / 2 + 0.5,
+                nanosA.stream().mapToLong(Long::longValue).toArray(),
+                nanosB.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    /**
+     * Picks the openings closest to even: every distinct position after the
+     * given number of plies from the start, ordered by the absolute
+     * {@link StaticEvaluator} score for the side to move.
+     * @return up to count move sequences, as squares x * 8 + y
+     */
+    static List<int[]> balancedOpenings(int count, int plies) {
+        Map<Long, int[]> positions = new HashMap<>();  // keyed by position, first line found wins
+        expandOpenings(BitBoard.START_BLACK, BitBoard.START_WHITE, new int[plies], 0, positions);
+        List<int[]> lines = new ArrayList<>(positions.values());
+        lines.sort(Comparator.comparingInt((int[] line) -> Math.abs(evaluate(line))).thenComparing(Arrays::compare));
+        return lines.subList(0, Math.min(count, lines.size()));
+    }
+
+    private static void expandOpenings(long own, long opp, int[] line, int ply, Map<Long, int[]> positions) {
+        if (ply == line.length) {
+            positions.putIfAbsent(BitBoard.hash(own, opp), line.clone());
+            return;
+        }
+        for (long m = BitBoard.legalMoves(own, opp); m != 0; m &= m - 1) {
+            int sq = Long.numberOfTrailingZeros(m);
+            long flipped = BitBoard.flips(own, opp, sq);
+            line[ply] = sq;
+            expandOpenings(opp & ~flipped, own | flipped | (1L << sq), line, ply + 1, positions);
+        }
+    }
+
+    /**
+     * @return the static score of the position a line reaches, for the side to move
+     */
+    private static int evaluate(int[] line) {
+        long own = BitBoard.START_BLACK;
+        long opp = BitBoard.START_WHITE;
+        for (int sq : line) {
+            long flipped = BitBoard.flips(own, opp, sq);
+            long next = opp & ~flipped;
+            opp = own | flipped | (1L << sq);
+            own = next;
+        }
+        return StaticEvaluator.evaluate(own, opp);
+    }
+
+    public static void main(String[] args) {
+        Tournament tournament = new Tournament();
+        List<String> specs = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--gauntlet" -> tournament.setFormat(Format.GAUNTLET);
+                    case "--threads" -> tournament.setThreads(Integer.parseInt(args[++i]));
+                    case "--openings" -> tournament.setOpenings(Integer.parseInt(args[++i]));
+                    case "--plies" -> tournament.setOpeningPlies(Integer.parseInt(args[++i]));
+                    default -> specs.add(args[i]);
+                }
+            }
+            System.out.print(tournament.run(specs));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Usage: Tournament [--gauntlet] [--threads N] [--openings N] [--plies N]"
+                    + " spec spec... (strategies: " + StrategyFactory.names() + ")");
+            System.exit(1);
+        }
+    }
+}
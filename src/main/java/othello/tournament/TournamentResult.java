@@ -0,0 +1,219 @@
+package othello.tournament;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a {@link Tournament}: win/draw/loss counts for every
+ * pairing and every strategy, Elo ratings with 95% error bars, and the
+ * decision-latency percentiles of each strategy.
+ *
+ * A strategy's Elo is its performance against the field it played, from
+ * its average score s as -400 * log10(1 / s - 1). The error bar maps the
+ * 95% interval of the mean game score through the same curve, so it is
+ * asymmetric on the Elo scale; the half-width is reported.
+ */
+public final class TournamentResult {
+    /** Win/draw/loss of spec a against spec b, and the Elo of a relative to b. */
+    public record Pairing(String a, String b, int winsA, int draws, int winsB, double elo, double eloError) {
+        public int games() {
+            return winsA + draws + winsB;
+        }
+    }
+
+    /** Totals of one strategy over all its games, with its decision latencies in milliseconds. */
+    public record Standing(String spec, int wins, int draws, int losses, double elo, double eloError,
+                           int decisions, double p50Ms, double p90Ms, double p99Ms, double maxMs) {
+        public int games() {
+            return wins + draws + losses;
+        }
+
+        public double score() {
+            return (wins + draws / 2.0) / games();
+        }
+    }
+
+    private final List<String> specs;
+    private final List<Tournament.Game> games;
+    private final int openings;
+    private final long elapsedNanos;
+    private final List<Pairing> pairings = new ArrayList<>();
+    private final List<Standing> standings = new ArrayList<>();
+
+    TournamentResult(List<String> specs, List<Tournament.Game> games, int openings, long elapsedNanos) {
+        this.specs = List.copyOf(specs);
+        this.games = List.copyOf(games);
+        this.openings = openings;
+        this.elapsedNanos = elapsedNanos;
+
+        for (int a = 0; a < specs.size(); a++) {
+            for (int b = a + 1; b < specs.size(); b++) {
+                List<Double> scores = new ArrayList<>();
+                for (Tournament.Game g : games) {
+                    if (g.a() == a && g.b() == b) {
+                        scores.add(g.scoreA());
+                    }
+                }
+                if (!scores.isEmpty()) {
+                    double[] elo = elo(scores);
+                    pairings.add(new Pairing(specs.get(a), specs.get(b), count(scores, 1), count(scores, 0.5),
+                            count(scores, 0), elo[0], elo[1]));
+                }
+            }
+        }
+        for (int s = 0; s < specs.size(); s++) {
+            List<Double> scores = new ArrayList<>();
+            List<long[]> nanos = new ArrayList<>();
+            for (Tournament.Game g : games) {
+                if (g.a() == s) {
+                    scores.add(g.scoreA());
+                    nanos.add(g.nanosA());
+                } else if (g.b() == s) {
+                    scores.add(1 - g.scoreA());
+                    nanos.add(g.nanosB());
+                }
+            }
+            long[] latencies = nanos.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            double[] elo = elo(scores);
+            standings.add(new Standing(specs.get(s), count(scores, 1), count(scores, 0.5), count(scores, 0),
+                    elo[0], elo[1], latencies.length, percentile(latencies, 0.50), percentile(latencies, 0.90),
+                    percentile(latencies, 0.99), percentile(latencies, 1)));
+        }
+    }
+
+    /**
+     * @return the specs in the order they were given
+     */
+    public List<String> getSpecs() {
+        return specs;
+    }
+
+    /**
+     * @return every pairing that was played, in spec order
+     */
+    public List<Pairing> getPairings() {
+        return Collections.unmodifiableList(pairings);
+    }
+
+    /**
+     * @return the standing of every spec, in spec order
+     */
+    public List<Standing> getStandings() {
+        return Collections.unmodifiableList(standings);
+    }
+
+    /**
+     * @return the standing of one spec
+     * @throws IllegalArgumentException if the spec did not play
+     */
+    public Standing getStanding(String spec) {
+        int i = specs.indexOf(spec);
+        if (i < 0) {
+            throw new IllegalArgumentException("Not in this tournament: " + spec);
+        }
+        return standings.get(i);
+    }
+
+    public int getGames() {
+        return games.size();
+    }
+
+    /**
+     * @return number of black wins, to check the colours were balanced
+     */
+    public int getBlackWins() {
+        int wins = 0;
+        for (Tournament.Game g : games) {
+            if (g.scoreA() == (g.aIsBlack() ? 1 : 0)) {
+                wins++;
+            }
+        }
+        return wins;
+    }
+
+    public int getOpenings() {
+        return openings;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Converts a score into an Elo difference.
+     * @param score average score per game in (0, 1)
+     */
+    public static double elo(double score) {
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    /**
+     * @return the Elo of a list of game scores and the half-width of its 95%
+     *         interval; a score of 0 or 1 is clamped to half a game from it
+     */
+    static double[] elo(List<Double> scores) {
+        int n = scores.size();
+        double mean = 0;
+        for (double s : scores) {
+            mean += s;
+        }
+        mean /= n;
+        double variance = 0;
+        for (double s : scores) {
+            variance += (s - mean) * (s - mean);
+        }
+        double margin = 1.96 * Math.sqrt(variance / n / n);
+        double lo = 1 / (2.0 * n);
+        double hi = 1 - lo;
+        double low = elo(Math.max(lo, Math.min(hi, mean - margin)));
+        double high = elo(Math.max(lo, Math.min(hi, mean + margin)));
+        // adding 0.0 turns -0.0 into 0.0, so an even score does not print as "-0"
+        return new double[]{elo(Math.max(lo, Math.min(hi, mean))) + 0.0, (high - low) / 2};
+    }
+
+    private static int count(List<Double> scores, double value) {
+        int count = 0;
+        for (double s : scores) {
+            if (s == value) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param sorted latencies in nanoseconds, ascending
+     * @return the nearest-rank percentile in milliseconds, or 0 if there are none
+     */
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%d games, %d openings x 2 colours per pairing, %.1f s, black won %d%n%n",
+                games.size(), openings, elapsedNanos / 1e9, getBlackWins()));
+        int width = Math.max(8, specs.stream().mapToInt(String::length).max().orElse(0));
+        out.append(String.format("%-" + width + "s %6s %5s %5s %5s %7s %15s %9s %9s %9s %9s%n", "strategy",
+                "games", "W", "D", "L", "score", "Elo", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        for (Standing s : standings) {
+            out.append(String.format("%-" + width + "s %6d %5d %5d %5d %6.1f%% %+6.0f +/- %-4.0f"
+                            + " %9.2f %9.2f %9.2f %9.2f%n",
+                    s.spec(), s.games(), s.wins(), s.draws(), s.losses(), s.score() * 100, s.elo(), s.eloError(),
+                    s.p50Ms(), s.p90Ms(), s.p99Ms(), s.maxMs()));
+        }
+        out.append(String.format("%n"));
+        for (Pairing p : pairings) {
+            out.append(String.format("%s vs %s: +%d =%d -%d, Elo %+.0f +/- %.0f%n",
+                    p.a(), p.b(), p.winsA(), p.draws(), p.winsB(), p.elo(), p.eloError()));
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,72 @@
+package othello.gamelogic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BitBoard.
+ * Plays random games with OthelloGame and checks at every ply that the
+ * bitboard move generator and flip logic agree with the object model.
+ */
+public class BitBoardTest {
+
+    @Test
+    void testStartPosition() {
+        OthelloGame game = new OthelloGame(new HumanPlayer(), new HumanPlayer());
+        assertEquals(BitBoard.START_BLACK, BitBoard.fromBoard(game.getBoard(), BoardSpace.SpaceType.BLACK));
+        assertEquals(BitBoard.START_WHITE, BitBoard.fromBoard(game.getBoard(), BoardSpace.SpaceType.WHITE));
+        assertEquals(4, Long.bitCount(BitBoard.legalMoves(BitBoard.START_BLACK, BitBoard.START_WHITE)));
+    }
+
+    @Test
+    void testMatchesObjectModelOverRandomGames() {
+        Random random = new Random(5940);
+        for (int g = 0; g < 20; g++) {
+            Player black = new HumanPlayer();
+            Player white = new HumanPlayer();
+            OthelloGame game = new OthelloGame(black, white);
+            Player current = black, other = white;
+            while (true) {
+                long own = BitBoard.fromBoard(game.getBoard(), current.getColor());
+                long opp = BitBoard.fromBoard(game.getBoard(), other.getColor());
+                Map<BoardSpace, List<BoardSpace>> moves = game.getAvailableMoves(current);
+
+                long expected = 0;
+                for (BoardSpace m : moves.keySet()) {
+                    expected |= BitBoard.bit(m.getX(), m.getY());
+                }
+                assertEquals(expected, BitBoard.legalMoves(own, opp), "legal move masks differ");
+
+                if (moves.isEmpty()) {
+                    if (game.getAvailableMoves(other).isEmpty()) {
+                        break;
+                    }
+                } else {
+                    List<BoardSpace> choices = new ArrayList<>(moves.keySet());
+                    BoardSpace pick = choices.get(random.nextInt(choices.size()));
+                    long flipped = BitBoard.flips(own, opp, pick.getX() * 8 + pick.getY());
+                    game.takeSpaces(current, other, moves, pick);
+                    assertEquals(own | flipped | BitBoard.bit(pick.getX(), pick.getY()),
+                            BitBoard.fromBoard(game.getBoard(), current.getColor()), "flips differ");
+                }
+                Player tmp = current;
+                current = other;
+                other = tmp;
+            }
+        }
+    }
+
+    @Test
+    void testNthSquare() {
+        long mask = BitBoard.bit(0, 0) | BitBoard.bit(2, 5) | BitBoard.bit(7, 7);
+        assertEquals(0, BitBoard.nthSquare(mask, 0));
+        assertEquals(21, BitBoard.nthSquare(mask, 1));
+        assertEquals(63, BitBoard.nthSquare(mask, 2));
+    }
+}
@@ -1,5 +1,6 @@
 package othello.gamelogic;
 
+import othello.gamelogic.strategy.CustomConfig;
 import othello.gamelogic.strategy.CustomStrategy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +15,8 @@ import static org.junit.jupiter.api.Assertions.*;
  * 1) On the standard start board, it should return a legal move.
  * 2) When a true corner move is available, it must pick that corner.
  * 3) When no moves exist, it should return null.
+ * 4) Seeded parallel rollouts are reproducible.
+ * 5) Successive halving stays within its rollout budget.
  */
 public class CustomStrategyTest {
 
@@ -100,5 +103,28 @@ public class CustomStrategyTest {
         assertNull(strat.chooseMove(game, customPlayer),
                 "chooseMove should return null when no legal moves exist");
     }
-}
 
+    @Test
+    void testSeededParallelRolloutsAreReproducible() {
+        CustomConfig config = new CustomConfig().setThreads(4).setRollouts(200).setSeed(11);
+        Map<BoardSpace, ?> moves = game.getAvailableMoves(customPlayer);
+        BoardSpace first = new CustomStrategy(config).chooseMove(game, customPlayer);
+        assertTrue(moves.containsKey(first), "parallel rollouts must return a legal move");
+        for (int i = 0; i < 5; i++) {
+            BoardSpace again = new CustomStrategy(config).chooseMove(game, customPlayer);
+            assertEquals(first.getX(), again.getX(), "same seed and threads, same decision");
+            assertEquals(first.getY(), again.getY());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new CustomConfig().setThreads(0));
+    }
+
+    @Test
+    void testHalvingStaysWithinBudget() {
+        CustomStrategy halving = new CustomStrategy(new CustomConfig()
+                .setAllocation(CustomConfig.Allocation.HALVING).setBudget(120).setSeed(5));
+        Map<BoardSpace, ?> moves = game.getAvailableMoves(customPlayer);
+        assertTrue(moves.containsKey(halving.chooseMove(game, customPlayer)));
+        assertTrue(halving.getLastPlayouts() > 0 && halving.getLastPlayouts() <= 120,
+                "played " + halving.getLastPlayouts());
+    }
+}
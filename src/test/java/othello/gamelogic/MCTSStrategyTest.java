@@ -1,16 +1,21 @@
 package othello.gamelogic;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import othello.gamelogic.strategy.CancellationToken;
+import othello.gamelogic.strategy.MCTSConfig;
+import othello.gamelogic.strategy.MCTSStrategy;
+import othello.gamelogic.strategy.SearchLimits;
 
+import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Unit tests for MCTSStrategy.chooseMove.
  * These tests verify that on a normal board MCTS picks a legal move,
- * and when no moves are available it throws the expected exception.
+ * and when no moves are available it returns null, like every strategy.
  */
 public class MCTSStrategyTest {
     private ComputerPlayer mctsPlayer;
@@ -46,10 +51,233 @@ public class MCTSStrategyTest {
         Map<BoardSpace, ?> moves = game.getAvailableMoves(mctsPlayer);
         assertTrue(moves.isEmpty(), "There should be no available moves after filling board");
 
-        // Since MCTSStrategy doesn't guard this case, Collections.max() on an empty list will fail
-        assertThrows(NoSuchElementException.class,
-                () -> game.computerDecision(mctsPlayer),
-                "Expect NoSuchElementException when MCTS has no children to select");
+        assertNull(game.computerDecision(mctsPlayer),
+                "chooseMove should return null when no legal moves exist");
+    }
+
+    @Test
+    void testTreeParallelChoosesLegalMove() {
+        MCTSStrategy parallel = new MCTSStrategy(new MCTSConfig().setThreads(4).setIterations(400));
+        Map<BoardSpace, ?> moves = game.getAvailableMoves(mctsPlayer);
+        BoardSpace choice = parallel.chooseMove(game, mctsPlayer);
+        assertTrue(moves.containsKey(choice), "Tree-parallel MCTS must return a legal move");
+    }
+
+    @Test
+    void testRootParallelChoosesLegalMove() {
+        MCTSStrategy ensemble = new MCTSStrategy(new MCTSConfig()
+                .setParallelism(MCTSConfig.Parallelism.ROOT).setThreads(3).setIterations(300));
+        Map<BoardSpace, ?> moves = game.getAvailableMoves(mctsPlayer);
+        BoardSpace choice = ensemble.chooseMove(game, mctsPlayer);
+        assertTrue(moves.containsKey(choice), "Root-parallel MCTS must return a legal move");
+    }
+
+    @Test
+    void testLeafParallelBatchesPlayouts() {
+        MCTSStrategy leaf = new MCTSStrategy(new MCTSConfig()
+                .setParallelism(MCTSConfig.Parallelism.LEAF).setThreads(3).setLeafBatch(6).setIterations(600));
+        Map<BoardSpace, ?> moves = game.getAvailableMoves(mctsPlayer);
+        assertTrue(moves.containsKey(leaf.chooseMove(game, mctsPlayer)), "Leaf-parallel MCTS must return a legal move");
+        assertEquals(600, leaf.getLastStats().getIterations(), "the budget counts playouts, six per leaf");
+    }
+
+    @Test
+    void testTimeBudgetWithoutIterationLimit() {
+        MCTSStrategy timed = new MCTSStrategy(
+                new MCTSConfig().setThreads(2).setIterations(0).setTimeBudgetMs(50));
+        Map<BoardSpace, ?> moves = game.getAvailableMoves(mctsPlayer);
+        assertTrue(moves.containsKey(timed.chooseMove(game, mctsPlayer)),
+                "Time-budgeted MCTS must return a legal move");
+    }
+
+    @Test
+    void testNodeBudgetStopsSearchAndIsReported() {
+        MCTSStrategy bounded = new MCTSStrategy(
+                new MCTSConfig().setIterations(0).setMaxNodes(50));
+        Map<BoardSpace, ?> moves = game.getAvailableMoves(mctsPlayer);
+        assertTrue(moves.containsKey(bounded.chooseMove(game, mctsPlayer)));
+        assertTrue(bounded.getLastStats().getTreeSize() <= 50, "Search should stop at the node budget");
+        assertTrue(bounded.getLastStats().getIterations() > 1);
+        assertTrue(bounded.getLastStats().getIterationsPerSecond() > 0);
+    }
+
+    @Test
+    void testPruningKeepsSearchingInBoundedMemory() {
+        MCTSStrategy pruned = new MCTSStrategy(new MCTSConfig()
+                .setMaxNodes(500).setPrune(true).setIterations(5000).setTranspositions(true));
+        Map<BoardSpace, ?> moves = game.getAvailableMoves(mctsPlayer);
+        assertTrue(moves.containsKey(pruned.chooseMove(game, mctsPlayer)));
+        assertEquals(5000, pruned.getLastStats().getIterations(), "a full tree is pruned, not the end of the search");
+        assertTrue(pruned.getLastStats().getPrunes() > 0);
+        assertTrue(pruned.getLastStats().getPeakNodes() <= 500);
+    }
+
+    @Test
+    void testLazyPositionsSearchTheSameTree() {
+        MCTSConfig eager = new MCTSConfig().setIterations(3000).setSeed(7).setPrior(MCTSConfig.Prior.MOBILITY);
+        MCTSConfig lazy = new MCTSConfig().setIterations(3000).setSeed(7).setPrior(MCTSConfig.Prior.MOBILITY)
+                .setLazyPositions(true);
+        MCTSStrategy a = new MCTSStrategy(eager);
+        MCTSStrategy b = new MCTSStrategy(lazy);
+        BoardSpace eagerChoice = a.chooseMove(game, mctsPlayer);
+        BoardSpace lazyChoice = b.chooseMove(game, mctsPlayer);
+        assertEquals(eagerChoice.getX(), lazyChoice.getX(), "replaying moves must rebuild the stored positions");
+        assertEquals(eagerChoice.getY(), lazyChoice.getY());
+        assertEquals(a.getLastStats().getTreeSize(), b.getLastStats().getTreeSize());
+        assertTrue(b.getLastStats().getArenaBytes() < a.getLastStats().getArenaBytes());
+    }
+
+    @Test
+    void testEarlyStopKeepsTheChosenMove() {
+        // a corner capture that random playouts quickly find far better than the rest
+        game.getBoard()[0][1].setType(BoardSpace.SpaceType.WHITE);
+        game.getBoard()[0][2].setType(BoardSpace.SpaceType.BLACK);
+        MCTSConfig full = new MCTSConfig().setIterations(20_000).setSeed(3);
+        MCTSConfig early = new MCTSConfig().setIterations(20_000).setSeed(3)
+                .setEarlyStop(MCTSConfig.EarlyStop.SAFE);
+        MCTSStrategy a = new MCTSStrategy(full);
+        MCTSStrategy b = new MCTSStrategy(early);
+        BoardSpace fullChoice = a.chooseMove(game, mctsPlayer);
+        BoardSpace earlyChoice = b.chooseMove(game, mctsPlayer);
+        assertEquals(fullChoice.getX(), earlyChoice.getX(), "a safe stop cannot change the most visited move");
+        assertEquals(fullChoice.getY(), earlyChoice.getY());
+        assertTrue(b.getLastStats().getIterations() < 20_000);
+        assertTrue(b.getLastStats().getSavedNanos() > 0);
+        assertEquals(0, a.getLastStats().getSavedNanos());
+    }
+
+    @Test
+    void testSearchLimitsCapTheTree() {
+        MCTSStrategy limited = new MCTSStrategy(new MCTSConfig().setIterations(50_000));
+        Map<BoardSpace, ?> moves = game.getAvailableMoves(mctsPlayer);
+        assertTrue(moves.containsKey(limited.chooseMove(game, mctsPlayer,
+                new SearchLimits().setMaxNodes(300), new CancellationToken())));
+        // the last iteration may add one block of children past the limit
+        assertTrue(limited.getLastStats().getTreeSize() < 300 + 33);
+        assertTrue(limited.getLastStats().getIterations() < 50_000);
+    }
+
+    @Test
+    void testConfigWithoutBudgetIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new MCTSStrategy(new MCTSConfig().setIterations(0)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MCTSStrategy(new MCTSConfig().setRave(true).setParallelism(MCTSConfig.Parallelism.LEAF)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MCTSStrategy(new MCTSConfig().setIterations(0).setMaxNodes(50).setPrune(true)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MCTSStrategy(new MCTSConfig().setLazyPositions(true).setTranspositions(true)));
+    }
+
+    @Test
+    void testRaveChoosesLegalMove() {
+        MCTSStrategy rave = new MCTSStrategy(new MCTSConfig().setRave(true).setIterations(500));
+        Map<BoardSpace, ?> moves = game.getAvailableMoves(mctsPlayer);
+        assertTrue(moves.containsKey(rave.chooseMove(game, mctsPlayer)),
+                "RAVE MCTS must return a legal move");
     }
-}
 
+    @Test
+    void testWeightsPriorTriesCornerFirst() {
+        // give Black a corner capture next to the standard opening moves
+        game.getBoard()[0][1].setType(BoardSpace.SpaceType.WHITE);
+        game.getBoard()[0][2].setType(BoardSpace.SpaceType.BLACK);
+        MCTSStrategy prior = new MCTSStrategy(new MCTSConfig()
+                .setPrior(MCTSConfig.Prior.WEIGHTS).setIterations(1));
+        BoardSpace choice = prior.chooseMove(game, mctsPlayer);
+        assertEquals(0, choice.getX());
+        assertEquals(0, choice.getY());
+    }
+
+    @Test
+    void testTranspositionsShareNodes() {
+        MCTSStrategy dag = new MCTSStrategy(new MCTSConfig().setTranspositions(true).setIterations(2000));
+        Map<BoardSpace, ?> moves = game.getAvailableMoves(mctsPlayer);
+        assertTrue(moves.containsKey(dag.chooseMove(game, mctsPlayer)));
+        assertTrue(dag.getLastStats().getTranspositions() > 0,
+                "2000 iterations from the start should meet some transpositions");
+    }
+
+    @Test
+    void testPonderingDuringOpponentsTurn() throws InterruptedException {
+        MCTSStrategy ponderer = new MCTSStrategy(new MCTSConfig().setIterations(200).setPonder(true));
+        Map<BoardSpace, List<BoardSpace>> moves = game.getAvailableMoves(mctsPlayer);
+        game.takeSpaces(mctsPlayer, minimaxPlayer, moves, ponderer.chooseMove(game, mctsPlayer));
+
+        ponderer.startPondering(game, mctsPlayer);
+        Thread.sleep(100);
+        Map<BoardSpace, List<BoardSpace>> replies = game.getAvailableMoves(minimaxPlayer);
+        game.takeSpaces(minimaxPlayer, mctsPlayer, replies, replies.keySet().iterator().next());
+        ponderer.stopPondering();
+        ponderer.stopPondering();  // stopping twice is harmless
+
+        // the decision waits for the ponder to wind down
+        moves = game.getAvailableMoves(mctsPlayer);
+        assertTrue(moves.containsKey(ponderer.chooseMove(game, mctsPlayer)),
+                "the move after pondering must be legal");
+        assertTrue(ponderer.getLastPonderStats().getIterations() > 0, "pondering should have searched");
+    }
+
+    @Test
+    void testSolverPlaysProvenResultInEndgame() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int trial = 0; trial < 20; trial++) {
+            // random game until six empties remain, with black to move
+            long black = BitBoard.START_BLACK, white = BitBoard.START_WHITE;
+            boolean blackToMove = true;
+            while (Long.bitCount(black | white) < 58 || !blackToMove
+                    || BitBoard.legalMoves(black, white) == 0) {
+                long own = blackToMove ? black : white, opp = blackToMove ? white : black;
+                long moves = BitBoard.legalMoves(own, opp);
+                if (moves == 0 && BitBoard.legalMoves(opp, own) == 0) {
+                    black = BitBoard.START_BLACK;   // game ended early: start over
+                    white = BitBoard.START_WHITE;
+                    blackToMove = true;
+                    continue;
+                }
+                if (moves != 0) {
+                    int sq = BitBoard.nthSquare(moves, random.nextInt(Long.bitCount(moves)));
+                    long flipped = BitBoard.flips(own, opp, sq);
+                    own |= flipped | (1L << sq);
+                    opp &= ~flipped;
+                    black = blackToMove ? own : opp;
+                    white = blackToMove ? opp : own;
+                }
+                blackToMove = !blackToMove;
+            }
+            for (int sq = 0; sq < BitBoard.SQUARES; sq++) {
+                game.getBoard()[sq / 8][sq % 8].setType((black >>> sq & 1) != 0 ? BoardSpace.SpaceType.BLACK
+                        : (white >>> sq & 1) != 0 ? BoardSpace.SpaceType.WHITE : BoardSpace.SpaceType.EMPTY);
+            }
+
+            MCTSStrategy solver = new MCTSStrategy(new MCTSConfig().setIterations(100_000).setSeed(trial + 1));
+            BoardSpace choice = solver.chooseMove(game, mctsPlayer);
+            int sq = choice.getX() * 8 + choice.getY();
+            long flipped = BitBoard.flips(black, white, sq);
+            int chosen = -exactResult(white & ~flipped, black | flipped | (1L << sq));
+            int best = exactResult(black, white);
+            assertEquals(best, chosen, "solver move must reach the game-theoretic result");
+            assertTrue(solver.getLastStats().getIterations() < 100_000, "a decided root should end the search");
+        }
+    }
+
+    /**
+     * @return the sign of the final disc margin for the side to move under perfect play
+     */
+    private static int exactResult(long own, long opp) {
+        long moves = BitBoard.legalMoves(own, opp);
+        if (moves == 0) {
+            if (BitBoard.legalMoves(opp, own) == 0) {
+                return Integer.signum(Long.bitCount(own) - Long.bitCount(opp));
+            }
+            return -exactResult(opp, own);
+        }
+        int best = -1;
+        for (; moves != 0; moves &= moves - 1) {
+            int sq = Long.numberOfTrailingZeros(moves);
+            long flipped = BitBoard.flips(own, opp, sq);
+            best = Math.max(best, -exactResult(opp & ~flipped, own | flipped | (1L << sq)));
+        }
+        return best;
+    }
+}
@@ -0,0 +1,74 @@
+package othello.gamelogic.book;
+
+import othello.gamelogic.BitBoard;
+import othello.gamelogic.BoardSpace;
+import othello.gamelogic.ComputerPlayer;
+import othello.gamelogic.HumanPlayer;
+import othello.gamelogic.OthelloGame;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for building, mapping and probing an OpeningBook.
+ */
+public class OpeningBookTest {
+
+    @Test
+    void testBuiltBookCoversTheMainLine(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("book.bin");
+        int written = new OpeningBookBuilder().setMaxPly(4).setPositions(40).setSearchDepth(2).write(file);
+        assertEquals(OpeningBook.HEADER_BYTES + written * OpeningBook.ENTRY_BYTES, Files.size(file));
+
+        OpeningBook book = OpeningBook.open(file);
+        assertEquals(written, book.size());
+        assertEquals(4, book.getMaxPly());
+
+        // follow the book's own moves from the start for as long as it has them
+        long own = BitBoard.START_BLACK;
+        long opp = BitBoard.START_WHITE;
+        int ply = 0;
+        for (int sq = book.probe(own, opp); sq >= 0; sq = book.probe(own, opp)) {
+            assertEquals(ply, book.ply(book.find(own, opp)));
+            double score = book.score(book.find(own, opp));
+            assertTrue(score >= 0 && score <= 1, "score is a win probability: " + score);
+            long flipped = BitBoard.flips(own, opp, sq);
+            long next = opp & ~flipped;
+            opp = own | flipped | (1L << sq);
+            own = next;
+            ply++;
+        }
+        assertTrue(ply >= 2 && ply <= 4, "the main line is expanded furthest, up to maxPly: " + ply);
+        assertEquals(-1, book.probe(BitBoard.START_WHITE, BitBoard.START_BLACK), "side to move is part of the key");
+    }
+
+    @Test
+    void testComputerPlayerPlaysBookMovesWithoutSearching(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("book.bin");
+        new OpeningBookBuilder().setMaxPly(2).setPositions(5).setSearchDepth(1).write(file);
+        OpeningBook book = OpeningBook.open(file);
+
+        ComputerPlayer black = new ComputerPlayer((game, me, limits, cancel) -> {
+            throw new AssertionError("the book covers the start position");
+        });
+        OthelloGame game = new OthelloGame(black, new HumanPlayer());
+        black.setOpeningBook(book);
+        BoardSpace move = black.chooseMove(game);
+        int sq = book.probe(BitBoard.START_BLACK, BitBoard.START_WHITE);
+        assertEquals(sq / 8, move.getX());
+        assertEquals(sq % 8, move.getY());
+        assertTrue(game.getAvailableMoves(black).containsKey(move));
+    }
+
+    @Test
+    void testRejectsOtherFiles(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("not-a-book.bin");
+        Files.write(file, new byte[32]);
+        assertThrows(IOException.class, () -> OpeningBook.open(file));
+    }
+}
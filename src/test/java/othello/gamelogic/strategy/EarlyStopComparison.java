@@ -0,0 +1,22 @@
+package othello.gamelogic.strategy;
+
+/**
+ * Hand-run comparison of early stopping with spending the whole budget:
+ * matches at the same iteration budget, where the time column shows what
+ * stopping early saves and the results show what it costs.
+ */
+public class EarlyStopComparison {
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+
+        MCTSConfig full = new MCTSConfig().setIterations(iterations);
+        for (MCTSConfig.EarlyStop stop : new MCTSConfig.EarlyStop[] {
+                MCTSConfig.EarlyStop.SAFE, MCTSConfig.EarlyStop.CONFIDENCE}) {
+            MCTSConfig early = new MCTSConfig().setIterations(iterations).setEarlyStop(stop);
+            System.out.println(stop + " stop vs full budget (" + iterations + " iterations per move)");
+            MCTSComparison.playMatch(stop + " stop", early, "full budget", full, games);
+        }
+    }
+}
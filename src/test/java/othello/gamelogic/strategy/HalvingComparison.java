@@ -0,0 +1,41 @@
+package othello.gamelogic.strategy;
+
+import othello.gamelogic.BoardSpace;
+
+/**
+ * Hand-run comparison of successive halving in {@link CustomStrategy} with
+ * the flat 50 rollouts per move: halving at a fraction of the flat budget
+ * plays matches against flat allocation, reporting the rollouts each side
+ * spent.
+ */
+public class HalvingComparison {
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+        int[] budgets = {100, 200, 400};
+
+        for (int budget : budgets) {
+            CustomConfig halving = new CustomConfig()
+                    .setAllocation(CustomConfig.Allocation.HALVING).setBudget(budget);
+            int[] playouts = new int[2];
+            int[] decisions = new int[2];
+            System.out.println("Halving with " + budget + " rollouts vs flat 50 per move");
+            MCTSComparison.playMatch("halving", () -> counting(new CustomStrategy(halving), 0, playouts, decisions), 1,
+                    "flat", () -> counting(new CustomStrategy(), 1, playouts, decisions), 1, games);
+            System.out.printf("  rollouts per decision: halving %.0f, flat %.0f%n",
+                    (double) playouts[0] / decisions[0], (double) playouts[1] / decisions[1]);
+        }
+    }
+
+    /**
+     * Wraps a strategy so every decision adds its rollouts to the side's total.
+     */
+    private static Strategy counting(CustomStrategy strategy, int side, int[] playouts, int[] decisions) {
+        return (game, me, limits, cancel) -> {
+            BoardSpace move = strategy.chooseMove(game, me, limits, cancel);
+            playouts[side] += strategy.getLastPlayouts();
+            decisions[side]++;
+            return move;
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package othello.gamelogic.strategy;
+
+/**
+ * Hand-run comparison of heavy playouts (see {@link PlayoutEngine}) with
+ * uniform ones: MCTS at equal time per move and CustomStrategy at equal
+ * rollouts. Playout rates are measured by {@link PlayoutBenchmark}.
+ */
+public class HeavyPlayoutComparison {
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+        double epsilon = args.length > 1 ? Double.parseDouble(args[1]) : 0.25;
+        long timeMs = args.length > 2 ? Long.parseLong(args[2]) : 50;
+
+        MCTSConfig heavy = new MCTSConfig().setPlayoutEpsilon(epsilon).setIterations(0).setTimeBudgetMs(timeMs);
+        MCTSConfig uniform = new MCTSConfig().setIterations(0).setTimeBudgetMs(timeMs);
+        System.out.println("MCTS, " + timeMs + " ms per move");
+        MCTSComparison.playMatch("heavy e=" + epsilon, heavy, "uniform", uniform, games);
+
+        CustomConfig heavyCustom = new CustomConfig().setPlayoutEpsilon(epsilon);
+        System.out.println("CustomStrategy, 50 rollouts per move");
+        MCTSComparison.playMatch("heavy e=" + epsilon, () -> new CustomStrategy(heavyCustom), 1,
+                "uniform", CustomStrategy::new, 1, games);
+    }
+}
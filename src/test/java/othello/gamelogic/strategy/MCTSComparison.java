@@ -0,0 +1,82 @@
+package othello.gamelogic.strategy;
+
+import othello.gamelogic.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Head-to-head matches between two MCTS configurations, run by hand like
+ * StrategyComparisonTest. Colours alternate every game, and each side's
+ * thinking time is reported in core-seconds (wall time x threads) so that
+ * differently parallelised configurations can be compared fairly.
+ */
+public class MCTSComparison {
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long timeMs = args.length > 2 ? Long.parseLong(args[2]) : 200;
+
+        MCTSConfig tree = new MCTSConfig().setParallelism(MCTSConfig.Parallelism.TREE)
+                .setThreads(threads).setIterations(0).setTimeBudgetMs(timeMs);
+        MCTSConfig root = new MCTSConfig().setParallelism(MCTSConfig.Parallelism.ROOT)
+                .setThreads(threads).setIterations(0).setTimeBudgetMs(timeMs);
+        playMatch("tree-parallel", tree, "root-parallel", root, games);
+    }
+
+    /**
+     * Plays a match and prints wins, draws and the core-seconds spent by each side.
+     */
+    static void playMatch(String nameA, MCTSConfig a, String nameB, MCTSConfig b, int games) {
+        playMatch(nameA, () -> new MCTSStrategy(a), a.getThreads(),
+                nameB, () -> new MCTSStrategy(b), b.getThreads(), games);
+    }
+
+    static void playMatch(String nameA, Supplier<Strategy> a, int threadsA,
+                          String nameB, Supplier<Strategy> b, int threadsB, int games) {
+        int winsA = 0, winsB = 0, draws = 0;
+        long[] nanos = new long[2];
+        for (int i = 0; i < games; i++) {
+            boolean aIsBlack = (i % 2 == 0);
+            ComputerPlayer pa = new ComputerPlayer(a.get());
+            ComputerPlayer pb = new ComputerPlayer(b.get());
+            OthelloGame game = aIsBlack ? new OthelloGame(pa, pb) : new OthelloGame(pb, pa);
+
+            Player current = game.getPlayerOne();
+            Player opponent = game.getPlayerTwo();
+            while (true) {
+                Map<BoardSpace, List<BoardSpace>> moves = game.getAvailableMoves(current);
+                if (!moves.isEmpty()) {
+                    long start = System.nanoTime();
+                    BoardSpace choice = game.computerDecision((ComputerPlayer) current);
+                    nanos[current == pa ? 0 : 1] += System.nanoTime() - start;
+                    game.takeSpaces(current, opponent, moves, choice);
+                } else if (game.getAvailableMoves(opponent).isEmpty()) {
+                    break;
+                }
+                Player tmp = current;
+                current = opponent;
+                opponent = tmp;
+            }
+
+            int countA = pa.getPlayerOwnedSpacesSpaces().size();
+            int countB = pb.getPlayerOwnedSpacesSpaces().size();
+            if (countA > countB) {
+                winsA++;
+            } else if (countB > countA) {
+                winsB++;
+            } else {
+                draws++;
+            }
+        }
+
+        System.out.println("Played " + games + " games:");
+        System.out.printf("  %s wins %d (%.1f%%), %.1f core-s%n", nameA, winsA,
+                winsA * 100.0 / games, nanos[0] * threadsA / 1e9);
+        System.out.printf("  %s wins %d (%.1f%%), %.1f core-s%n", nameB, winsB,
+                winsB * 100.0 / games, nanos[1] * threadsB / 1e9);
+        System.out.printf("  Draws %d (%.1f%%)%n", draws, draws * 100.0 / games);
+    }
+}
@@ -0,0 +1,136 @@
+package othello.gamelogic.strategy;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NodeArena allocation, publication and reuse.
+ */
+public class NodeArenaTest {
+
+    @Test
+    void testAllocateUntilFullThenReset() {
+        NodeArena arena = new NodeArena(10);
+        assertEquals(0, arena.newNode(64, 1L, 2L));
+        assertEquals(1, arena.allocate(6));
+        assertFalse(arena.isExhausted());
+        assertEquals(-1, arena.allocate(4), "only 3 slots are left");
+        assertTrue(arena.isExhausted());
+        assertEquals(7, arena.size());
+
+        arena.reset();
+        assertEquals(0, arena.size());
+        assertFalse(arena.isExhausted());
+        assertEquals(0, arena.newNode(3, 5L, 6L));
+        assertEquals(0, arena.visits(0), "reused slots start from zero");
+        assertEquals(NodeArena.UNEXPANDED, arena.firstChild(0));
+    }
+
+    @Test
+    void testClaimAndPublishChildren() {
+        NodeArena arena = new NodeArena(8);
+        int root = arena.newNode(64, 0L, 0L);
+        assertTrue(arena.claim(root));
+        assertFalse(arena.claim(root), "a node can only be claimed once");
+        assertEquals(NodeArena.EXPANDING, arena.firstChild(root));
+
+        int first = arena.allocate(2);
+        arena.publishChildren(root, first, 2);
+        assertEquals(first, arena.firstChild(root));
+        assertEquals(2, arena.childCount[root]);
+    }
+
+    @Test
+    void testUpdateAccumulatesStatistics() {
+        NodeArena arena = new NodeArena(1);
+        int n = arena.newNode(0, 0L, 0L);
+        arena.addVirtualLoss(n, 3);
+        arena.update(n, NodeArena.WIN);
+        arena.update(n, NodeArena.WIN / 2);
+        arena.addVirtualLoss(n, -3);
+        assertEquals(2, arena.visits(n));
+        assertEquals(NodeArena.WIN * 3 / 2, arena.wins(n));
+        assertEquals(0, arena.virtualLoss(n));
+    }
+
+    @Test
+    void testInternSharesRepeatedPositions() {
+        NodeArena arena = new NodeArena(8, new MCTSConfig().setTranspositions(true));
+        int a = arena.newNode(1, 5L, 6L);
+        int b = arena.newNode(2, 5L, 6L);
+        int c = arena.newNode(3, 6L, 5L);
+        assertEquals(a, arena.intern(a));
+        assertEquals(a, arena.intern(b), "same position, different move order");
+        assertEquals(c, arena.intern(c), "side to move is part of the position");
+        assertEquals(a, arena.target(b));
+        assertEquals(1, arena.transpositions());
+
+        arena.reset();
+        int d = arena.newNode(2, 5L, 6L);
+        assertEquals(d, arena.intern(d), "reset clears the position table");
+    }
+
+    @Test
+    void testCompactKeepsOnlyTheSubtree() {
+        NodeArena arena = new NodeArena(8);
+        int root = arena.newNode(64, 0L, 0L);
+        int first = arena.allocate(2);
+        arena.init(first, 10, 1L, 0L);
+        arena.init(first + 1, 11, 2L, 0L);
+        arena.publishChildren(root, first, 2);
+        int kept = first + 1;
+        int grandchildren = arena.allocate(2);
+        arena.init(grandchildren, 20, 3L, 0L);
+        arena.init(grandchildren + 1, 21, 4L, 0L);
+        arena.publishChildren(kept, grandchildren, 2);
+        arena.update(kept, NodeArena.WIN);
+
+        int newRoot = arena.compact(kept);
+        assertEquals(0, newRoot);
+        assertEquals(3, arena.size(), "the old root and the other child are freed");
+        assertEquals(2L, arena.own[newRoot]);
+        assertEquals(1, arena.visits(newRoot));
+        assertEquals(1, arena.firstChild(newRoot));
+        assertEquals(2, arena.childCount[newRoot]);
+        assertEquals(20, arena.move[1]);
+        assertEquals(4L, arena.own[2]);
+    }
+
+    @Test
+    void testPruneCollapsesLeastVisitedSubtrees() {
+        NodeArena arena = new NodeArena(10, new MCTSConfig().setPrune(true));
+        int old = arena.newNode(64, 0L, 0L);
+        int stale = arena.newNode(64, 9L, 0L);  // garbage left before the root
+        int root = arena.compact(old);
+        assertEquals(0, root);
+        int first = arena.allocate(2);
+        arena.init(first, 10, 1L, 0L);
+        arena.init(first + 1, 11, 2L, 0L);
+        arena.publishChildren(root, first, 2);
+        int grandchildren = arena.allocate(2);
+        arena.init(grandchildren, 20, 3L, 0L);
+        arena.init(grandchildren + 1, 21, 4L, 0L);
+        arena.publishChildren(first, grandchildren, 2);  // rarely visited subtree
+        int busy = arena.allocate(2);
+        arena.init(busy, 30, 5L, 0L);
+        arena.init(busy + 1, 31, 6L, 0L);
+        arena.publishChildren(first + 1, busy, 2);       // often visited subtree
+        for (int i = 0; i < 10; i++) {
+            arena.update(root, NodeArena.WIN);
+            arena.update(first + 1, NodeArena.WIN);
+        }
+        arena.update(first, NodeArena.WIN / 2);
+        assertEquals(7, arena.size());
+        assertNotEquals(stale, root);
+
+        assertEquals(root, arena.prune());
+        assertEquals(5, arena.size(), "the rarely visited grandchildren are freed");
+        assertEquals(NodeArena.UNEXPANDED, arena.firstChild(first), "collapsed back into a leaf");
+        assertEquals(1, arena.visits(first), "a collapsed node keeps its statistics");
+        assertEquals(NodeArena.WIN / 2, arena.wins(first));
+        assertEquals(3, arena.firstChild(first + 1));
+        assertEquals(31, arena.move[4]);
+        assertEquals(7, arena.peakSize());
+    }
+}
@@ -0,0 +1,63 @@
+package othello.gamelogic.strategy;
+
+import othello.gamelogic.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Measures random playouts per second, run by hand.
+ * Compares the object-model playout the strategies used to run (clone the
+ * OthelloGame, build a move map and list per ply) with PlayoutEngine, and
+ * uniform with heavy playouts.
+ */
+public class PlayoutBenchmark {
+
+    public static void main(String[] args) {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+
+        PlayoutEngine engine = new PlayoutEngine(new SplittableRandom());
+        measure("object model", millis, () -> objectModelPlayout(new OthelloGame(new HumanPlayer(), new HumanPlayer())));
+        measure("PlayoutEngine", millis, () -> engine.playout(BitBoard.START_BLACK, BitBoard.START_WHITE));
+        PlayoutEngine heavy = new PlayoutEngine(new SplittableRandom(), 0.25);
+        measure("heavy (e=0.25)", millis, () -> heavy.playout(BitBoard.START_BLACK, BitBoard.START_WHITE));
+    }
+
+    private static void measure(String name, long millis, Runnable playout) {
+        // warm up for a quarter of the time, then count
+        long end = System.nanoTime() + millis * 250_000L;
+        while (System.nanoTime() < end) {
+            playout.run();
+        }
+        long count = 0;
+        long start = System.nanoTime();
+        end = start + millis * 1_000_000L;
+        while (System.nanoTime() < end) {
+            playout.run();
+            count++;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-14s %,12.0f playouts/s%n", name, count / seconds);
+    }
+
+    private static void objectModelPlayout(OthelloGame sim) {
+        Random random = new Random();
+        Player current = sim.getPlayerOne();
+        while (true) {
+            Map<BoardSpace, List<BoardSpace>> avail = sim.getAvailableMoves(current);
+            if (avail.isEmpty()) {
+                current = current == sim.getPlayerOne() ? sim.getPlayerTwo() : sim.getPlayerOne();
+                avail = sim.getAvailableMoves(current);
+                if (avail.isEmpty()) break;
+            }
+            List<BoardSpace> choices = new ArrayList<>(avail.keySet());
+            BoardSpace move = choices.get(random.nextInt(choices.size()));
+            Player other = current == sim.getPlayerOne() ? sim.getPlayerTwo() : sim.getPlayerOne();
+            sim.takeSpaces(current, other, avail, move);
+            current = other;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package othello.gamelogic.strategy;
+
+import othello.gamelogic.BitBoard;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PlayoutEngine.
+ */
+public class PlayoutEngineTest {
+
+    @Test
+    void testPlayoutMarginIsConsistent() {
+        PlayoutEngine engine = new PlayoutEngine(new SplittableRandom(1));
+        for (int i = 0; i < 1000; i++) {
+            int diff = engine.playout(BitBoard.START_BLACK, BitBoard.START_WHITE);
+            assertTrue(diff >= -64 && diff <= 64, "margin out of range: " + diff);
+        }
+    }
+
+    @Test
+    void testFinishedGameIsScoredWithoutMoving() {
+        PlayoutEngine engine = new PlayoutEngine(new SplittableRandom(2));
+        long own = 0xFFFFFFFFL;      // rows 0-3
+        long opp = 0xFFFFFFFFL << 32; // rows 4-7
+        assertEquals(0, engine.playout(own, opp));
+        assertEquals(64, engine.playout(-1L, 0L));
+        assertEquals(-64, engine.playout(0L, -1L));
+    }
+
+    @Test
+    void testSameSeedSameResults() {
+        PlayoutEngine a = new PlayoutEngine(new SplittableRandom(42));
+        PlayoutEngine b = new PlayoutEngine(new SplittableRandom(42));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(a.playout(BitBoard.START_BLACK, BitBoard.START_WHITE),
+                    b.playout(BitBoard.START_BLACK, BitBoard.START_WHITE));
+        }
+    }
+
+    @Test
+    void testPlayedSquaresAreRecordedPerSide() {
+        PlayoutEngine engine = new PlayoutEngine(new SplittableRandom(3));
+        long start = BitBoard.START_BLACK | BitBoard.START_WHITE;
+        for (int i = 0; i < 100; i++) {
+            engine.playout(BitBoard.START_BLACK, BitBoard.START_WHITE);
+            long first = engine.getMovesByFirst();
+            long second = engine.getMovesBySecond();
+            assertEquals(0, first & second, "a square is played at most once");
+            assertEquals(0, (first | second) & start, "starting discs are never played");
+            assertTrue(Long.bitCount(first) > 0 && Long.bitCount(second) > 0);
+        }
+    }
+
+    @Test
+    void testTruncatedPlayoutStopsAtCutoff() {
+        PlayoutEngine engine = new PlayoutEngine(new SplittableRandom(4));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(PlayoutEngine.CUT_OFF, engine.playout(BitBoard.START_BLACK, BitBoard.START_WHITE, 10, 0));
+            long discs = engine.getCutoffOwn() | engine.getCutoffOpp();
+            assertEquals(14, Long.bitCount(discs), "ten moves from the start");
+
+            assertEquals(PlayoutEngine.CUT_OFF, engine.playout(BitBoard.START_BLACK, BitBoard.START_WHITE, 0, 40));
+            assertEquals(24, Long.bitCount(engine.getCutoffOwn() | engine.getCutoffOpp()));
+        }
+    }
+
+    @Test
+    void testWinProbabilityIsSymmetric() {
+        long own = BitBoard.bit(0, 0) | BitBoard.bit(7, 7) | BitBoard.START_BLACK;
+        long opp = BitBoard.START_WHITE;
+        double p = StaticEvaluator.winProbability(own, opp);
+        assertTrue(p > 0.5, "two corners should favour their owner");
+        assertEquals(1.0, p + StaticEvaluator.winProbability(opp, own), 1e-9);
+    }
+
+    @Test
+    void testHeavyPlayoutGrabsCornersAndAvoidsXSquares() {
+        // legal moves: corner (0,0), X-square (1,1) and (3,5)
+        long own = BitBoard.bit(0, 2) | BitBoard.bit(3, 3);
+        long opp = BitBoard.bit(0, 1) | BitBoard.bit(2, 2) | BitBoard.bit(3, 4);
+        PlayoutEngine heavy = new PlayoutEngine(new SplittableRandom(5), 0.5);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(PlayoutEngine.CUT_OFF, heavy.playout(own, opp, 1, 0));
+            assertEquals(BitBoard.bit(0, 0), heavy.getMovesByFirst(), "a legal corner is always taken");
+        }
+
+        // without the corner: (1,1) next to the empty corner, or (3,5)
+        own = BitBoard.bit(3, 3);
+        opp = BitBoard.bit(2, 2) | BitBoard.bit(3, 4);
+        PlayoutEngine greedy = new PlayoutEngine(new SplittableRandom(6), 0);
+        for (int i = 0; i < 50; i++) {
+            greedy.playout(own, opp, 1, 0);
+            assertEquals(BitBoard.bit(3, 5), greedy.getMovesByFirst(), "the X-square is avoided");
+        }
+        assertThrows(IllegalArgumentException.class, () -> new PlayoutEngine(new SplittableRandom(), 1.5));
+    }
+}
@@ -0,0 +1,144 @@
+package othello.gamelogic.strategy;
+
+import othello.gamelogic.BitBoard;
+import othello.gamelogic.BoardSpace;
+import othello.gamelogic.ComputerPlayer;
+import othello.gamelogic.OthelloGame;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PositionCache storage, persistence and crash safety.
+ */
+public class PositionCacheTest {
+
+    @Test
+    void testResultsPersistAcrossSessions(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("positions.bin");
+        long key = PositionCache.key(BitBoard.START_BLACK, BitBoard.START_WHITE, "minimax");
+        try (PositionCache cache = PositionCache.open(file, 4096)) {
+            assertTrue(Files.size(file) <= 4096, "the file respects its size cap");
+            assertNull(cache.get(key));
+            cache.put(key, 19, 4, 12.5f);
+            cache.put(key, 26, 2, 3f);  // shallower: keeps the deeper result
+            assertThrows(IOException.class, () -> PositionCache.open(file, 4096), "one process at a time");
+        }
+        try (PositionCache cache = PositionCache.open(file, 4096)) {
+            assertEquals(new PositionCache.Entry(19, 4, 12.5f), cache.get(key));
+            assertNull(cache.get(PositionCache.key(BitBoard.START_BLACK, BitBoard.START_WHITE, "expectimax")),
+                    "results are kept per strategy");
+            cache.put(key, 37, 6, -1f);
+            assertEquals(new PositionCache.Entry(37, 6, -1f), cache.get(key));
+        }
+        try (PositionCache cache = PositionCache.open(file, 8192)) {
+            assertNull(cache.get(key), "a different size cap starts a new cache");
+        }
+    }
+
+    @Test
+    void testTornEntryReadsAsMiss(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("positions.bin");
+        try (PositionCache cache = PositionCache.open(file, 128)) {  // a single bucket
+            for (int i = 1; i <= 4; i++) {
+                cache.put(i, i, 1, 0f);
+            }
+        }
+        // overwrite the packed half of the first entry, as a crash between its two writes would
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putLong(0, 0x1234L), 64 + 8);
+        }
+        try (PositionCache cache = PositionCache.open(file, 128)) {
+            assertNull(cache.get(1));
+            assertEquals(2, cache.get(2).move());
+            cache.put(5, 5, 1, 0f);
+            assertEquals(5, cache.get(5).move());
+        }
+    }
+
+    @Test
+    void testMinimaxReadsThroughTheCache(@TempDir Path dir) throws IOException {
+        MinimaxStrategy first = (MinimaxStrategy) StrategyFactory.create(
+                "minimax:depth=3,cache=" + dir.resolve("positions.bin"));
+        ComputerPlayer black = new ComputerPlayer(first);
+        OthelloGame game = new OthelloGame(black, new ComputerPlayer("minimax"));
+        BoardSpace searched = black.chooseMove(game);
+
+        // a second strategy on the same file answers without searching, even with no nodes to spend
+        MinimaxStrategy second = (MinimaxStrategy) StrategyFactory.create(
+                "minimax:depth=3,cache=" + dir.resolve("positions.bin"));
+        BoardSpace cached = second.chooseMove(game, black, new SearchLimits().setMaxNodes(1),
+                new CancellationToken());
+        assertSame(searched, cached);
+        PositionCache.shared(dir.resolve("positions.bin"), 1 << 20).close();
+    }
+
+    @Test
+    void testSearchDeeperThanAnEntryRecords(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("positions.bin");
+        ComputerPlayer black = new ComputerPlayer("minimax");
+        ComputerPlayer white = new ComputerPlayer("minimax");
+        OthelloGame game = new OthelloGame(black, white);
+        // one empty corner, which black takes along the diagonal to its right-hand column
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                if (x + y > 0) {
+                    game.takeSpace(y == 7 ? black : white, y == 7 ? white : black, x, y);
+                }
+            }
+        }
+        for (String name : new String[]{"minimax", "expectimax"}) {
+            Strategy strategy = StrategyFactory.create(name + ":cache=" + file);
+            BoardSpace move = strategy.chooseMove(game, black, new SearchLimits().setMaxDepth(300),
+                    new CancellationToken());
+            assertNotNull(move);
+            long key = PositionCache.key(BitBoard.fromBoard(game.getBoard(), black.getColor()),
+                    BitBoard.fromBoard(game.getBoard(), BoardSpace.SpaceType.WHITE), name);
+            assertEquals(PositionCache.MAX_DEPTH, PositionCache.shared(file, 1 << 20).get(key).depth());
+        }
+        PositionCache.shared(file, 1 << 20).close();
+    }
+
+    @Test
+    void testCustomReadsThroughTheCache(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("positions.bin");
+        try (CustomStrategy first = (CustomStrategy) StrategyFactory.create(
+                "custom:threads=1,rollouts=20,seed=1,cache=" + file)) {
+            ComputerPlayer black = new ComputerPlayer(first);
+            OthelloGame game = new OthelloGame(black, new ComputerPlayer("custom"));
+            BoardSpace searched = black.chooseMove(game);
+
+            // fewer rollouts than the stored decision: answered from the cache
+            try (CustomStrategy second = (CustomStrategy) StrategyFactory.create(
+                    "custom:threads=1,rollouts=20,seed=2,cache=" + file)) {
+                BoardSpace cached = second.chooseMove(game, black, new SearchLimits().setMaxNodes(4),
+                        new CancellationToken());
+                assertSame(searched, cached);
+                assertEquals(0, second.getLastPlayouts());
+            }
+            // more rollouts than it: searched again
+            try (CustomStrategy third = (CustomStrategy) StrategyFactory.create(
+                    "custom:threads=1,rollouts=40,seed=2,cache=" + file)) {
+                third.chooseMove(game, black, new SearchLimits(), new CancellationToken());
+                assertEquals(160, third.getLastPlayouts());
+            }
+        }
+        PositionCache.shared(file, 1 << 20).close();
+    }
+
+    @Test
+    void testSpecKeepsTheCaseOfTheCachePath(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("My Cache.BIN");
+        new ComputerPlayer(" MiniMax:Depth=1,cache=" + file + " ");
+        assertTrue(Files.exists(file), "names and keys are case-insensitive, values are not");
+        PositionCache.shared(file, 1 << 20).close();
+    }
+}
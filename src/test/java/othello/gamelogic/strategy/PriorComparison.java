@@ -0,0 +1,19 @@
+package othello.gamelogic.strategy;
+
+/**
+ * Hand-run match of MCTS with each positional prior against plain UCT at a
+ * small iteration budget, where prior knowledge matters most.
+ */
+public class PriorComparison {
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        for (MCTSConfig.Prior prior : new MCTSConfig.Prior[] {MCTSConfig.Prior.WEIGHTS, MCTSConfig.Prior.MOBILITY}) {
+            System.out.println(prior + " prior, " + iterations + " iterations per move");
+            MCTSComparison.playMatch(prior.toString(), new MCTSConfig().setPrior(prior).setIterations(iterations),
+                    "UCT", new MCTSConfig().setIterations(iterations), games);
+        }
+    }
+}
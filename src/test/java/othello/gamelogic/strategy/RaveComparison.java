@@ -0,0 +1,28 @@
+package othello.gamelogic.strategy;
+
+/**
+ * Hand-run match of MCTS with and without RAVE, first with both sides on the
+ * same number of playouts per move and then with the same time per move, so
+ * that RAVE's bookkeeping cost shows up in the second result.
+ * The AMAF values already steer the search, so the RAVE side runs with a
+ * lower exploration constant; with the default sqrt(2) it loses to plain UCT.
+ */
+public class RaveComparison {
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        long timeMs = args.length > 2 ? Long.parseLong(args[2]) : 50;
+        double raveExploration = 0.3;
+
+        System.out.println("Equal playouts (" + iterations + " per move)");
+        MCTSComparison.playMatch("RAVE", new MCTSConfig().setRave(true).setExploration(raveExploration)
+                        .setIterations(iterations),
+                "UCT", new MCTSConfig().setIterations(iterations), games);
+
+        System.out.println("Equal time (" + timeMs + " ms per move)");
+        MCTSComparison.playMatch("RAVE", new MCTSConfig().setRave(true).setExploration(raveExploration)
+                        .setIterations(0).setTimeBudgetMs(timeMs),
+                "UCT", new MCTSConfig().setIterations(0).setTimeBudgetMs(timeMs), games);
+    }
+}
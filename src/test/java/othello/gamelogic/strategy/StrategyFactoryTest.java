@@ -1,6 +1,11 @@
 package othello.gamelogic.strategy;
 
 import org.junit.jupiter.api.Test;
+import othello.gamelogic.ComputerPlayer;
+import othello.gamelogic.OthelloGame;
+
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -35,5 +40,38 @@ public class StrategyFactoryTest {
         );
         assertTrue(ex.getMessage().contains("Unknown strategy"));
     }
-}
 
+    @Test
+    public void testSpecsConfigureStrategies() {
+        assertEquals(Set.of("custom", "expectimax", "mcts", "minimax"), StrategyFactory.names());
+
+        MCTSStrategy mcts = (MCTSStrategy) StrategyFactory.create("MCTS: iterations=7, seed=3, c=1.2, tt=on");
+        ComputerPlayer black = new ComputerPlayer(mcts);
+        OthelloGame game = new OthelloGame(black, new ComputerPlayer("minimax"));
+        black.chooseMove(game);
+        assertEquals(7, mcts.getLastStats().getIterations());
+
+        CustomStrategy custom = (CustomStrategy) StrategyFactory.create("custom:rollouts=5,allocation=flat");
+        black = new ComputerPlayer(custom);
+        black.chooseMove(new OthelloGame(black, new ComputerPlayer("minimax")));
+        assertEquals(4 * 5, custom.getLastPlayouts(), "five rollouts for each opening move");
+
+        assertTrue(StrategyFactory.create("minimax:depth=3") instanceof MinimaxStrategy);
+        assertTrue(StrategyFactory.create("expectimax:depth=1") instanceof ExpectimaxStrategy);
+    }
+
+    @Test
+    public void testBadSpecsThrow() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> StrategyFactory.create("mcts:thread=8"));
+        assertTrue(ex.getMessage().contains("Unknown option 'thread'"));
+        ex = assertThrows(IllegalArgumentException.class, () -> StrategyFactory.create("mcts:threads=many"));
+        assertTrue(ex.getMessage().contains("must be an integer"));
+        assertThrows(IllegalArgumentException.class, () -> StrategyFactory.create("mcts:threads"));
+        assertThrows(IllegalArgumentException.class, () -> StrategyFactory.create("mcts:threads=2,threads=4"));
+        assertThrows(IllegalArgumentException.class, () -> StrategyFactory.create("mcts:parallelism=shared"));
+        assertThrows(IllegalArgumentException.class, () -> StrategyFactory.create("minimax:depth=0"));
+        assertThrows(IllegalArgumentException.class, () -> StrategyFactory.create("mcts:iterations=0"),
+                "the config's own validation still applies");
+    }
+}
@@ -5,13 +5,19 @@ import othello.gamelogic.OthelloGame;
 import othello.gamelogic.BoardSpace;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Smoke tests for each AI Strategy.
- * Verifies that chooseMove() always returns one of the legal destinations.
+ * Verifies that chooseMove() always returns one of the legal destinations,
+ * also when the search is cancelled or runs out of time, and when it runs
+ * asynchronously with progress reports.
  */
 public class StrategySmokeTest {
 
@@ -20,7 +26,7 @@ public class StrategySmokeTest {
      * start a fresh OthelloGame, and assert that chooseMove()
      * returns a key from getAvailableMoves().
      */
-    private void assertLegal(String strategyName) {
+    private void assertLegal(String strategyName) throws Exception {
         ComputerPlayer ai = new ComputerPlayer(strategyName);
         ComputerPlayer dummy = new ComputerPlayer("minimax"); // just to fill second slot
         // Black goes first
@@ -35,25 +41,56 @@ public class StrategySmokeTest {
                 () -> "[" + strategyName + "] chooseMove() returned null");
         assertTrue(moves.containsKey(pick),
                 () -> "[" + strategyName + "] picked illegal move: " + pick);
+
+        CancellationToken cancelled = new CancellationToken();
+        cancelled.cancel();
+        BoardSpace early = ai.chooseMove(game, new SearchLimits(), cancelled);
+        assertTrue(moves.containsKey(early),
+                () -> "[" + strategyName + "] cancelled search picked illegal move: " + early);
+
+        // a depth no fixed-depth search could finish in time
+        long start = System.nanoTime();
+        BoardSpace timed = ai.chooseMove(game, new SearchLimits().setTimeBudgetMs(50).setMaxDepth(12),
+                new CancellationToken());
+        assertTrue(moves.containsKey(timed),
+                () -> "[" + strategyName + "] timed search picked illegal move: " + timed);
+        assertTrue(System.nanoTime() - start < 2_000_000_000L,
+                () -> "[" + strategyName + "] ignored the deadline");
+
+        List<SearchProgress> reports = new CopyOnWriteArrayList<>();
+        SearchLimits limits = new SearchLimits().setProgressListener(reports::add).setProgressIntervalMs(0);
+        BoardSpace async = ai.chooseMoveAsync(game, limits, new CancellationToken()).get(10, TimeUnit.SECONDS);
+        assertTrue(moves.containsKey(async),
+                () -> "[" + strategyName + "] async search picked illegal move: " + async);
+        assertFalse(reports.isEmpty(), () -> "[" + strategyName + "] reported no progress");
+        BoardSpace reported = reports.get(reports.size() - 1).getBestMove();
+        assertEquals(async.getX(), reported.getX(), "the last report names the chosen move");
+        assertEquals(async.getY(), reported.getY());
+
+        CancellationToken token = new CancellationToken();
+        CompletableFuture<BoardSpace> future = ai.chooseMoveAsync(game,
+                new SearchLimits().setTimeBudgetMs(10_000).setMaxDepth(12), token);
+        future.cancel(false);
+        assertTrue(token.isCancelled(), "cancelling the future stops the search");
     }
 
     @Test
-    public void testMinimaxStrategy() {
+    public void testMinimaxStrategy() throws Exception {
         assertLegal("minimax");
     }
 
     @Test
-    public void testExpectimaxStrategy() {
+    public void testExpectimaxStrategy() throws Exception {
         assertLegal("expectimax");
     }
 
     @Test
-    public void testMCTSStrategy() {
+    public void testMCTSStrategy() throws Exception {
         assertLegal("mcts");
     }
 
     @Test
-    public void testCustomStrategy() {
+    public void testCustomStrategy() throws Exception {
         assertLegal("custom");
     }
 }
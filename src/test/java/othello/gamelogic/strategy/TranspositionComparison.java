@@ -0,0 +1,36 @@
+package othello.gamelogic.strategy;
+
+import othello.gamelogic.ComputerPlayer;
+import othello.gamelogic.OthelloGame;
+
+/**
+ * Hand-run comparison of transposition-aware MCTS with the plain tree:
+ * how many of the child slots created from the opening are transpositions
+ * (positions that would otherwise get a separate node and subtree), then
+ * matches at equal iterations and at equal time.
+ */
+public class TranspositionComparison {
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        long timeMs = args.length > 2 ? Long.parseLong(args[2]) : 50;
+
+        MCTSStrategy dag = new MCTSStrategy(new MCTSConfig().setTranspositions(true).setIterations(iterations));
+        ComputerPlayer black = new ComputerPlayer(dag);
+        OthelloGame game = new OthelloGame(black, new ComputerPlayer(new MCTSStrategy()));
+        dag.chooseMove(game, black);
+        SearchStats stats = dag.getLastStats();
+        System.out.printf("Opening, %,d iterations: %,d slots, %,d transpositions (%.1f%%)%n",
+                iterations, stats.getTreeSize(), stats.getTranspositions(),
+                stats.getTranspositions() * 100.0 / stats.getTreeSize());
+
+        System.out.println("Equal iterations (" + iterations + " per move)");
+        MCTSComparison.playMatch("DAG", new MCTSConfig().setTranspositions(true).setIterations(iterations),
+                "tree", new MCTSConfig().setIterations(iterations), games);
+
+        System.out.println("Equal time (" + timeMs + " ms per move)");
+        MCTSComparison.playMatch("DAG", new MCTSConfig().setTranspositions(true).setIterations(0).setTimeBudgetMs(timeMs),
+                "tree", new MCTSConfig().setIterations(0).setTimeBudgetMs(timeMs), games);
+    }
+}
@@ -0,0 +1,36 @@
+package othello.gamelogic.strategy;
+
+import othello.gamelogic.ComputerPlayer;
+import othello.gamelogic.OthelloGame;
+
+/**
+ * Hand-run comparison of truncated rollouts (cut off after a number of
+ * plies and scored by {@link StaticEvaluator}) with full random playouts:
+ * iteration rate from the opening (after a few warm-up decisions), then a
+ * match at equal time per move.
+ */
+public class TruncationComparison {
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int plies = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        long timeMs = args.length > 2 ? Long.parseLong(args[2]) : 50;
+
+        MCTSConfig truncated = new MCTSConfig().setRolloutPlies(plies).setIterations(0).setTimeBudgetMs(timeMs);
+        MCTSConfig full = new MCTSConfig().setIterations(0).setTimeBudgetMs(timeMs);
+        for (MCTSConfig config : new MCTSConfig[] {truncated, full}) {
+            MCTSStrategy strategy = new MCTSStrategy(config);
+            ComputerPlayer black = new ComputerPlayer(strategy);
+            OthelloGame game = new OthelloGame(black, new ComputerPlayer(new MCTSStrategy()));
+            for (int i = 0; i < 5; i++) {
+                strategy.chooseMove(game, black);  // the first decisions warm up the JIT
+            }
+            System.out.printf("%s: %,.0f iterations/s%n",
+                    config == full ? "full playouts" : plies + "-ply cutoff",
+                    strategy.getLastStats().getIterationsPerSecond());
+        }
+
+        System.out.println("Equal time (" + timeMs + " ms per move)");
+        MCTSComparison.playMatch(plies + "-ply cutoff", truncated, "full playouts", full, games);
+    }
+}
@@ -0,0 +1,72 @@
+package othello.tournament;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Sprt statistic and its early stopping.
+ */
+public class SprtTest {
+
+    @Test
+    void testLikelihoodRatioFollowsTheScore() {
+        Sprt sprt = new Sprt().setElo0(0).setElo1(20).setAlpha(0.05).setBeta(0.05);
+        assertEquals(Math.log(0.05 / 0.95), sprt.lowerBound(), 1e-12);
+        assertEquals(-sprt.lowerBound(), sprt.upperBound(), 1e-12);
+
+        assertTrue(sprt.llr(new int[]{0, 0, 0, 0, 1000}) > sprt.upperBound(), "all wins accept H1");
+        assertTrue(sprt.llr(new int[]{100, 0, 800, 0, 100}) < sprt.lowerBound(), "an even score accepts H0");
+        assertEquals(0, sprt.llr(new int[]{0, 0, 0}), 1e-12, "no games, no evidence");
+        assertTrue(Math.abs(sprt.llr(new int[]{0, 1, 0})) < 1, "a single result decides nothing");
+    }
+
+    @Test
+    void testNormalHelpers() {
+        assertEquals(0.5, Sprt.score(0), 1e-12);
+        assertEquals(0.75, Sprt.score(400 * Math.log10(3)), 1e-12);
+        assertEquals(1.6449, Sprt.quantile(0.95), 1e-3);
+        assertEquals(0, Sprt.quantile(0.5), 1e-6);
+    }
+
+    @Test
+    void testClearDifferenceStopsEarly() {
+        SprtResult result = new Sprt().setElo0(0).setElo1(100).setAlpha(0.1).setBeta(0.1)
+                .setThreads(2).setMaxGames(200).run("custom:rollouts=4", "minimax:depth=2");
+        assertEquals(SprtResult.Decision.H1, result.decision());
+        assertTrue(result.llr() >= result.upperBound());
+        assertTrue(result.games() < 200 && result.games() % 2 == 0, "stopped on a pair: " + result.games());
+        int pairs = 0;
+        for (int p : result.pentanomial()) {
+            pairs += p;
+        }
+        assertEquals(result.games(), 2 * pairs);
+        assertTrue(result.elo() > 0);
+        assertEquals(result.fixedGames() - result.games(), result.gamesSaved());
+    }
+
+    @Test
+    void testTrinomialChecksEveryGame() {
+        SprtResult result = new Sprt().setElo0(0).setElo1(100).setAlpha(0.1).setBeta(0.1).setPentanomial(false)
+                .setThreads(2).setMaxGames(200).run("custom:rollouts=4", "minimax:depth=2");
+        assertEquals(SprtResult.Decision.H1, result.decision());
+        // the first game that crosses the bound ends the test, even in the middle of a pair
+        int[] counts = new int[3];
+        counts[2] = result.wins();
+        counts[1] = result.draws();
+        counts[0] = result.losses();
+        Sprt same = new Sprt().setElo0(0).setElo1(100).setAlpha(0.1).setBeta(0.1);
+        assertTrue(same.llr(counts) >= same.upperBound());
+        counts[result.wins() > 0 ? 2 : 0]--;
+        assertTrue(same.llr(counts) < same.upperBound(), "one game earlier the test was still running");
+    }
+
+    @Test
+    void testMaxGamesEndsUndecided() {
+        SprtResult result = new Sprt().setThreads(1).setMaxGames(2).run("minimax:depth=1", "expectimax:depth=1");
+        assertEquals(SprtResult.Decision.INCONCLUSIVE, result.decision());
+        assertEquals(2, result.games());
+        assertThrows(IllegalArgumentException.class, () -> new Sprt().setElo0(10).setElo1(0).run("minimax", "mcts"));
+        assertThrows(IllegalArgumentException.class, () -> new Sprt().setAlpha(0));
+    }
+}
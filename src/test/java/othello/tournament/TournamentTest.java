@@ -0,0 +1,129 @@
+package othello.tournament;
+
+import othello.gamelogic.BitBoard;
+import othello.gamelogic.strategy.CancellationToken;
+import othello.gamelogic.strategy.StaticEvaluator;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Tournament pairings, openings and result totals.
+ */
+public class TournamentTest {
+
+    @Test
+    void testRoundRobinTotals() {
+        List<String> specs = List.of("minimax:depth=1", "expectimax:depth=1", "custom:rollouts=2");
+        TournamentResult result = new Tournament().setThreads(2).setOpenings(2).run(specs);
+
+        // 3 pairings, 2 openings, both colours
+        assertEquals(12, result.getGames());
+        assertEquals(3, result.getPairings().size());
+        for (TournamentResult.Pairing p : result.getPairings()) {
+            assertEquals(4, p.games());
+        }
+        int wins = 0;
+        int losses = 0;
+        for (TournamentResult.Standing s : result.getStandings()) {
+            assertEquals(8, s.games());
+            assertTrue(s.decisions() > 0);
+            assertTrue(s.p50Ms() <= s.p90Ms() && s.p90Ms() <= s.p99Ms() && s.p99Ms() <= s.maxMs());
+            assertTrue(s.eloError() >= 0);
+            wins += s.wins();
+            losses += s.losses();
+        }
+        assertEquals(wins, losses, "every win is someone's loss");
+        assertTrue(result.toString().contains("custom:rollouts=2"));
+    }
+
+    @Test
+    void testGauntletPlaysOnlyTheFirstSpec() {
+        TournamentResult result = new Tournament().setFormat(Tournament.Format.GAUNTLET).setThreads(1)
+                .setOpenings(1).run(List.of("minimax:depth=1", "expectimax:depth=1", "custom:rollouts=2"));
+        assertEquals(4, result.getGames());
+        assertEquals(4, result.getStanding("minimax:depth=1").games());
+        assertEquals(2, result.getStanding("custom:rollouts=2").games());
+    }
+
+    @Test
+    void testGamesReleaseStrategyThreads() throws InterruptedException {
+        long before = workerThreads();  // left by strategies of other tests
+        new Tournament().setThreads(2).setOpenings(1)
+                .run(List.of("mcts:threads=2,iterations=50", "custom:threads=2,rollouts=2"));
+        // shut down pools let their idle threads exit shortly after
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (workerThreads() > before && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(before, workerThreads(), "every game closes its strategies");
+    }
+
+    private static long workerThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.isAlive() && t.getName().contains("-worker-"))
+                .count();
+    }
+
+    @Test
+    void testStopCancelsRunningGames() throws InterruptedException {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        CancellationToken cancel = new CancellationToken();
+        int[] line = Tournament.balancedOpenings(1, 4).get(0);
+        Future<Tournament.Game> game = pool.submit(() -> Tournament.play(
+                List.of("mcts:iterations=100000000", "minimax"), 0, 1, true, line, cancel));
+        Thread.sleep(200);
+
+        long start = System.nanoTime();
+        Tournament.stop(pool, cancel);
+        assertTrue(pool.isTerminated());
+        assertTrue(System.nanoTime() - start < 5_000_000_000L, "the search stops at its next check");
+        ExecutionException e = assertThrows(ExecutionException.class, game::get);
+        assertInstanceOf(CancellationException.class, e.getCause());
+    }
+
+    @Test
+    void testOpeningsAreDistinctAndBalanced() {
+        List<int[]> lines = Tournament.balancedOpenings(8, 4);
+        assertEquals(8, lines.size());
+        Set<Long> positions = new HashSet<>();
+        int worst = 0;
+        for (int[] line : lines) {
+            long own = BitBoard.START_BLACK;
+            long opp = BitBoard.START_WHITE;
+            for (int sq : line) {
+                assertNotEquals(0, BitBoard.legalMoves(own, opp) & (1L << sq), "legal move");
+                long flipped = BitBoard.flips(own, opp, sq);
+                long next = opp & ~flipped;
+                opp = own | flipped | (1L << sq);
+                own = next;
+            }
+            assertTrue(positions.add(BitBoard.hash(own, opp)), "distinct position");
+            int score = Math.abs(StaticEvaluator.evaluate(own, opp));
+            assertTrue(score >= worst, "most balanced first");
+            worst = score;
+        }
+    }
+
+    @Test
+    void testRejectsBadInput() {
+        assertThrows(IllegalArgumentException.class, () -> new Tournament().run(List.of("minimax")));
+        assertThrows(IllegalArgumentException.class, () -> new Tournament().run(List.of("minimax", "nope")));
+        assertThrows(IllegalArgumentException.class, () -> new Tournament().setOpeningPlies(3));
+    }
+
+    @Test
+    void testEloOfEvenScoreIsZero() {
+        assertEquals(0, TournamentResult.elo(0.5), 1e-9);
+        assertEquals(-TournamentResult.elo(0.25), TournamentResult.elo(0.75), 1e-9);
+    }
+}